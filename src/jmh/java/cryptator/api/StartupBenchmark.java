@@ -0,0 +1,126 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from the launch of an API process to its first successful response (health endpoint)
+ * Modes:
+ * - default: the application as configured;
+ * - lazy: lazy bean initialization;
+ * - nodocs: springdoc (OpenAPI and Swagger UI) disabled;
+ * - cds: the class data sharing archive of the appcds profile (run mvn -Pappcds package first).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String ARCHIVE = "target/cryptator-api.jsa";
+    private static final String THIN_JAR = "target/cryptator-api-1.0.1-SNAPSHOT.jar";
+
+    @Param({"default", "lazy", "nodocs"})
+    public String mode;
+
+    private Process process;
+
+    @Benchmark
+    public int firstResponse() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        process = new ProcessBuilder(command(port))
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+
+        URL health = URI.create("http://localhost:" + port + "/api/v1/cryptator/health").toURL();
+        while (process.isAlive()) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) health.openConnection();
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("API process exited with code " + process.exitValue());
+    }
+
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-Dserver.port=" + port);
+        command.add("-Dlogging.level.root=WARN");
+        switch (mode) {
+            case "lazy":
+                command.add("-Dspring.main.lazy-initialization=true");
+                break;
+            case "nodocs":
+                command.add("-Dspringdoc.api-docs.enabled=false");
+                command.add("-Dspringdoc.swagger-ui.enabled=false");
+                break;
+            case "cds":
+                if (!new File(ARCHIVE).isFile()) {
+                    throw new IllegalStateException(ARCHIVE + " not found: run mvn -Pappcds package first");
+                }
+                command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+                command.add("-cp");
+                command.add(THIN_JAR + File.pathSeparator + "target/lib/*");
+                command.add(CryptatorApiApplication.class.getName());
+                return command;
+            default:
+                break;
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CryptatorApiApplication.class.getName());
+        return command;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
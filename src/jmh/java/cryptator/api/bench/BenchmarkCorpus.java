@@ -0,0 +1,73 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reproducible corpus shared by the benchmarks, loaded from the bench/ resources
+ */
+public final class BenchmarkCorpus {
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Get the cryptarithms of the solve corpus grouped by size (SMALL, MEDIUM, LARGE)
+     */
+    public static Map<String, List<String>> solveCorpus() {
+        Map<String, List<String>> corpus = new LinkedHashMap<>();
+        for (String[] entry : read("bench/solve-corpus.txt")) {
+            corpus.computeIfAbsent(entry[0], k -> new ArrayList<>()).add(entry[1]);
+        }
+        return corpus;
+    }
+
+    /**
+     * Get the word lists of the generation corpus by name
+     */
+    public static Map<String, List<String>> generateCorpus() {
+        Map<String, List<String>> corpus = new LinkedHashMap<>();
+        for (String[] entry : read("bench/generate-corpus.txt")) {
+            corpus.put(entry[0], Arrays.asList(entry[1].split(",")));
+        }
+        return corpus;
+    }
+
+    private static List<String[]> read(String resource) {
+        InputStream in = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing benchmark corpus: " + resource);
+        }
+        List<String[]> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                entries.add(line.split(";", 2));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cryptator.api.config.ClusterConfig;
+import cryptator.api.config.RequestLimitConfig;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Application context of the service benchmarks: the services, without the web layer
+ * The beans that Spring Boot auto-configures in the application (ObjectMapper) are declared here.
+ */
+@Configuration
+@ComponentScan("cryptator.api.service")
+@Import({ClusterConfig.class, RequestLimitConfig.class})
+public class ServiceBenchmarkConfig {
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    /**
+     * Start the services
+     */
+    public static AnnotationConfigApplicationContext newContext() {
+        return new AnnotationConfigApplicationContext(ServiceBenchmarkConfig.class);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of SolveResponse and GenerateResponse by payload size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int entries;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private SolveResponse solveResponse;
+    private GenerateResponse generateResponse;
+
+    @Setup
+    public void setUp() {
+        List<SolveResponse.Solution> solutions = new ArrayList<>(entries);
+        List<GenerateResponse.GeneratedCryptarithm> cryptarithms = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            String assignment = "d=7 e=5 m=1 n=6 o=0 r=8 s=9 y=" + (i % 10);
+            solutions.add(new SolveResponse.Solution(assignment, "send + more = money = " + assignment, true));
+            cryptarithms.add(new GenerateResponse.GeneratedCryptarithm("one + " + i + " = two", assignment));
+        }
+
+        solveResponse = new SolveResponse();
+        solveResponse.setSuccess(true);
+        solveResponse.setCryptarithm("send+more=money");
+        solveResponse.setSolutions(solutions);
+        solveResponse.setSolutionCount(entries);
+        solveResponse.setTaskId("bench");
+
+        generateResponse = new GenerateResponse();
+        generateResponse.setSuccess(true);
+        generateResponse.setCryptarithms(cryptarithms);
+        generateResponse.setTaskId("bench");
+    }
+
+    @Benchmark
+    public byte[] solveResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(solveResponse);
+    }
+
+    @Benchmark
+    public byte[] generateResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(generateResponse);
+    }
+}
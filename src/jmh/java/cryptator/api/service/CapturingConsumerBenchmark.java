@@ -0,0 +1,96 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.cmd.CryptaBiConsumer;
+import cryptator.config.CryptaCmdConfig;
+import cryptator.config.CryptatorConfig;
+import cryptator.parser.CryptaParserWrapper;
+import cryptator.specs.ICryptaNode;
+import cryptator.specs.ICryptaSolution;
+import cryptator.specs.ICryptaSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static cryptator.Cryptator.createSolver;
+import static cryptator.Cryptator.parseCryptarithm;
+
+/**
+ * Overhead of the capturing consumers: the same enumeration is run with a no-op consumer
+ * and with each capturing consumer, the difference being the per-solution cost
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CapturingConsumerBenchmark {
+
+    /** Puzzles with many solutions in base 16, so that the consumer dominates */
+    @Param({"send+more=money", "to+go=out"})
+    public String cryptarithm;
+
+    private final TaskManager taskManager = new TaskManager();
+    private ICryptaNode node;
+
+    @Setup
+    public void setUp() throws Exception {
+        Logger logger = Logger.getLogger("BenchmarkParseLogger");
+        logger.setUseParentHandlers(false);
+        node = parseCryptarithm(cryptarithm, new CryptaParserWrapper(), logger);
+    }
+
+    private int enumerate(CryptaBiConsumer consumer) throws Exception {
+        CryptatorConfig config = new CryptatorConfig();
+        config.setSolverType(CryptaCmdConfig.SolverType.SCALAR);
+        config.setArithmeticBase(16);
+        ICryptaSolver solver = createSolver(config);
+        solver.solve(node, config, consumer);
+        return consumer.getErrorCount();
+    }
+
+    @Benchmark
+    public int noop() throws Exception {
+        return enumerate(new CryptaBiConsumer(Logger.getLogger("BenchmarkLogger")) {
+            @Override
+            public void accept(ICryptaNode n, ICryptaSolution solution) {
+                // Consume nothing: baseline of the search itself
+            }
+        });
+    }
+
+    @Benchmark
+    public Object solutionCapturing() throws Exception {
+        CryptatorService.SolutionCapturingConsumer consumer =
+            new CryptatorService.SolutionCapturingConsumer(false, 16, node, "bench", taskManager);
+        enumerate(consumer);
+        return consumer.getSolutions();
+    }
+
+    @Benchmark
+    public Object cryptarithmCapturing() throws Exception {
+        CryptagenService.CryptarithmCapturingConsumer consumer =
+            new CryptagenService.CryptarithmCapturingConsumer("bench", taskManager);
+        enumerate(consumer);
+        return consumer.getCryptarithms();
+    }
+}
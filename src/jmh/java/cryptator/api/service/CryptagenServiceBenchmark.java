@@ -0,0 +1,69 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.bench.BenchmarkCorpus;
+import cryptator.api.bench.ServiceBenchmarkConfig;
+import cryptator.api.dto.GenerateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of CryptagenService on the word lists of the generation corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CryptagenServiceBenchmark {
+
+    @Param({"NUMBERS", "PLANETS", "NOMBRES"})
+    public String wordList;
+
+    @Param({"+", "*"})
+    public String operator;
+
+    private AnnotationConfigApplicationContext context;
+    private CryptagenService service;
+    private List<String> words;
+
+    @Setup
+    public void setUp() {
+        context = ServiceBenchmarkConfig.newContext();
+        service = context.getBean(CryptagenService.class);
+        words = BenchmarkCorpus.generateCorpus().get(wordList);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GenerateResponse generate() {
+        return service.generateCryptarithms(null, words, operator, 1, 60, false,
+                null, null, null, null, false, "UNIQUE", null, null, false, 1, null, false, null, null);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.bench.BenchmarkCorpus;
+import cryptator.api.bench.ServiceBenchmarkConfig;
+import cryptator.parser.CryptaParserException;
+import cryptator.parser.CryptaParserWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static cryptator.Cryptator.parseCryptarithm;
+
+/**
+ * Benchmarks of CryptatorService: parsing, first solution (model build + search) and enumeration,
+ * across solver types, arithmetic bases and puzzle sizes of the solve corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptatorServiceBenchmark {
+
+    /** Cap on enumerated solutions so that large puzzles in large bases stay measurable */
+    private static final int SOLUTION_CAP = 1000;
+
+    /** Time limit (seconds) passed to the solver */
+    private static final int TIME_LIMIT = 10;
+
+    @Param({"SCALAR", "BIGNUM", "CRYPT"})
+    public String solverType;
+
+    @Param({"10", "16"})
+    public int base;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public String size;
+
+    private AnnotationConfigApplicationContext context;
+    private CryptatorService service;
+    private List<String> puzzles;
+    private Logger parseLogger;
+
+    @Setup
+    public void setUp() {
+        context = ServiceBenchmarkConfig.newContext();
+        service = context.getBean(CryptatorService.class);
+        puzzles = BenchmarkCorpus.solveCorpus().get(size);
+        parseLogger = Logger.getLogger("BenchmarkParseLogger");
+        parseLogger.setUseParentHandlers(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws CryptaParserException {
+        for (String puzzle : puzzles) {
+            bh.consume(parseCryptarithm(puzzle, new CryptaParserWrapper(), parseLogger));
+        }
+    }
+
+    @Benchmark
+    public void solveFirst(Blackhole bh) {
+        for (String puzzle : puzzles) {
+            bh.consume(service.solveCryptarithm(null, puzzle, solverType, 1, TIME_LIMIT,
+                    base, false, false, false, false, null));
+        }
+    }
+
+    @Benchmark
+    public void solveAll(Blackhole bh) {
+        for (String puzzle : puzzles) {
+            bh.consume(service.solveCryptarithm(null, puzzle, solverType, SOLUTION_CAP, TIME_LIMIT,
+                    base, false, false, false, false, null));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies (in microseconds) and HTTP outcomes of one operation of the workload
+ * Only the latencies of successful (2xx) responses are kept: fast rejections and failures must not make
+ * a regression look faster.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int size;
+    private long count;
+    private long rejected;
+    private long failed;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record one completed request
+     * @param latencyMicros latency of the request
+     * @param status HTTP status, or -1 if the request failed at the transport level
+     */
+    public synchronized void record(long latencyMicros, int status) {
+        count++;
+        if (status == 429 || status == 503) {
+            rejected++;
+        } else if (status < 200 || status >= 300) {
+            failed++;
+        } else {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyMicros;
+        }
+    }
+
+    /**
+     * Merge the records of another recorder into this one
+     */
+    public synchronized void addAll(LatencyRecorder other) {
+        synchronized (other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            count += other.count;
+            rejected += other.rejected;
+            failed += other.failed;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of requests, whatever their outcome
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of successful (2xx) responses
+     */
+    public synchronized long getSucceeded() {
+        return size;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Get a latency percentile of the successful responses in milliseconds
+     * @param percentile percentile in [0, 100]
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))] / 1000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%-10s count=%-8d ok=%-8d rejected=%-6d failed=%-6d p50=%8.2fms p90=%8.2fms p99=%8.2fms max=%8.2fms",
+                name, count, size, rejected, failed,
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.loadtest;
+
+import cryptator.api.CryptatorApiApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the whole Spring stack (including RequestLimitFilter).
+ * <p>
+ * The application is started on a random port, then a mixed workload of solve, generate,
+ * status and cancel calls is replayed at the configured concurrency, each client with its own API key. Latency percentiles and
+ * rejections are reported, and the run fails if throughput (of successful responses) or p50/p99 latency
+ * regress beyond the stored baseline, overall or for one operation, or if no baseline is stored.
+ * Status and cancel calls on tasks that already finished are expected to find nothing: a 404 counts as a success there.
+ * Options are system properties:
+ * <ul>
+ *   <li>loadtest.concurrency: number of concurrent clients (default 16)</li>
+ *   <li>loadtest.duration: measured duration in seconds (default 30)</li>
+ *   <li>loadtest.warmup: warm-up duration in seconds, not measured (default 5)</li>
+ *   <li>loadtest.mix: operation weights (default solve=60,generate=5,status=30,cancel=5)</li>
+ *   <li>loadtest.seed: seed of the workload (default 42)</li>
+ *   <li>loadtest.baseline: baseline properties file</li>
+ *   <li>loadtest.record: write the measured values as the new baseline instead of comparing</li>
+ *   <li>loadtest.check: compare with the baseline (default true); false only reports the measures</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+
+    private static final String[] SOLVE_CORPUS = {
+        "send+more=money", "to+go=out", "cross+roads=danger", "donald+gerald=robert", "saturn+uranus=planets"
+    };
+
+    private static final String[] GENERATE_CORPUS = {
+        "[\"one\",\"two\",\"three\",\"four\"]", "[\"mars\",\"venus\",\"earth\"]"
+    };
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final Map<String, Integer> mix;
+    private final List<String> recentTaskIds = new ArrayList<>();
+
+    public LoadTestRunner(int port, Map<String, Integer> mix) {
+        this.baseUrl = "http://localhost:" + port;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int duration = Integer.getInteger("loadtest.duration", 30);
+        int warmup = Integer.getInteger("loadtest.warmup", 5);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", "solve=60,generate=5,status=30,cancel=5"));
+        Path baselinePath = Paths.get(System.getProperty("loadtest.baseline",
+                "src/loadtest/resources/loadtest-baseline.properties"));
+        boolean record = Boolean.getBoolean("loadtest.record");
+        boolean check = Boolean.parseBoolean(System.getProperty("loadtest.check", "true"));
+
+        // Each client has its own known API key, hence its own rate limit
+        StringBuilder apiKeys = new StringBuilder();
+        for (int i = 0; i < concurrency; i++) {
+            apiKeys.append(i > 0 ? "," : "").append(apiKey(i));
+        }
+        ConfigurableApplicationContext context = SpringApplication.run(CryptatorApiApplication.class,
+                "--server.port=0", "--logging.level.cryptator.api=WARN", "--api.ratelimit.api-keys=" + apiKeys);
+        Map<String, LatencyRecorder> results;
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner(port, mix);
+            System.out.printf("Load test on port %d: concurrency=%d, warmup=%ds, duration=%ds, mix=%s%n",
+                    port, concurrency, warmup, duration, mix);
+            runner.run(concurrency, warmup, seed);
+            results = runner.run(concurrency, duration, seed + 1);
+        } finally {
+            context.close();
+        }
+
+        LatencyRecorder total = new LatencyRecorder("total");
+        results.values().forEach(total::addAll);
+        Map<String, LatencyRecorder> scenarios = new LinkedHashMap<>(results);
+        scenarios.put(total.getName(), total);
+
+        results.values().forEach(System.out::println);
+        System.out.println(total);
+        System.out.printf("Throughput: %.1f successful req/s, p99: %.2f ms, rejected: %d, failed: %d%n",
+                total.getSucceeded() / (double) duration, total.percentileMillis(99), total.getRejected(), total.getFailed());
+
+        if (record) {
+            writeBaseline(baselinePath, scenarios, duration);
+            System.out.println("Baseline recorded in " + baselinePath);
+        } else if (check) {
+            checkBaseline(baselinePath, scenarios, duration);
+        }
+    }
+
+    /**
+     * Replay the workload for the given duration and return the recorders by operation
+     */
+    public Map<String, LatencyRecorder> run(int concurrency, int durationSeconds, long seed) throws InterruptedException {
+        Map<String, LatencyRecorder> results = new LinkedHashMap<>();
+        for (String op : mix.keySet()) {
+            results.put(op, new LatencyRecorder(op));
+        }
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(seed * 31 + i);
+            String apiKey = apiKey(i);
+            clients.execute(() -> {
+                while (System.nanoTime() < end) {
+                    String op = pick(random);
+                    long start = System.nanoTime();
+                    int status = call(op, random, apiKey);
+                    if (status == 404 && ("status".equals(op) || "cancel".equals(op))) {
+                        // The task already finished: not finding it is the expected answer
+                        status = 200;
+                    }
+                    results.get(op).record((System.nanoTime() - start) / 1000, status);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(durationSeconds + 300L, TimeUnit.SECONDS);
+        return results;
+    }
+
+    private static String apiKey(int client) {
+        return "loadtest-" + client;
+    }
+
+    private String pick(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int r = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty workload mix");
+    }
+
+    private int call(String op, Random random, String apiKey) {
+        try {
+            HttpRequest request;
+            switch (op) {
+                case "solve":
+                    request = post("/api/v1/cryptator/solve", String.format(
+                            "{\"taskId\":\"%s\",\"cryptarithm\":\"%s\",\"solutionLimit\":1,\"timeLimit\":10}",
+                            newTaskId(), SOLVE_CORPUS[random.nextInt(SOLVE_CORPUS.length)]), apiKey);
+                    break;
+                case "generate":
+                    request = post("/api/v1/cryptagen/generate", String.format(
+                            "{\"taskId\":\"%s\",\"words\":%s,\"operatorSymbol\":\"+\",\"timeLimit\":10}",
+                            newTaskId(), GENERATE_CORPUS[random.nextInt(GENERATE_CORPUS.length)]), apiKey);
+                    break;
+                case "status":
+                    request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/tasks/" + recentTaskId(random) + "/status"))
+                            .header("X-API-Key", apiKey)
+                            .GET().build();
+                    break;
+                case "cancel":
+                    request = post("/api/v1/tasks/" + recentTaskId(random) + "/cancel", "", apiKey);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation: " + op);
+            }
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest post(String path, String json, String apiKey) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("X-API-Key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String newTaskId() {
+        String taskId = UUID.randomUUID().toString();
+        synchronized (recentTaskIds) {
+            if (recentTaskIds.size() >= 256) {
+                recentTaskIds.remove(0);
+            }
+            recentTaskIds.add(taskId);
+        }
+        return taskId;
+    }
+
+    private String recentTaskId(Random random) {
+        synchronized (recentTaskIds) {
+            return recentTaskIds.isEmpty() ? "unknown" : recentTaskIds.get(random.nextInt(recentTaskIds.size()));
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] kv = entry.trim().split("=");
+            weights.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void writeBaseline(Path path, Map<String, LatencyRecorder> scenarios, int duration) throws IOException {
+        Properties baseline = loadBaseline(path);
+        for (LatencyRecorder scenario : scenarios.values()) {
+            String name = scenario.getName();
+            baseline.setProperty(name + ".throughput.rps",
+                    String.format(Locale.ROOT, "%.1f", scenario.getSucceeded() / (double) duration));
+            baseline.setProperty(name + ".latency.p50.ms", String.format(Locale.ROOT, "%.2f", scenario.percentileMillis(50)));
+            baseline.setProperty(name + ".latency.p99.ms", String.format(Locale.ROOT, "%.2f", scenario.percentileMillis(99)));
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            baseline.store(writer, "Load test baseline (mvn -Ploadtest compile exec:java -Dloadtest.record=true)");
+        }
+    }
+
+    /**
+     * Compare every scenario (operation, and total) with its baseline, if it has one
+     */
+    private static void checkBaseline(Path path, Map<String, LatencyRecorder> scenarios, int duration) throws IOException {
+        Properties baseline = loadBaseline(path);
+        if (baseline.getProperty("total.throughput.rps") == null || baseline.getProperty("total.latency.p99.ms") == null) {
+            throw new IllegalStateException("No baseline recorded in " + path
+                + ": run with -Dloadtest.record=true to create it, or -Dloadtest.check=false to only report");
+        }
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance", "0.2"));
+        List<String> regressions = new ArrayList<>();
+        for (LatencyRecorder scenario : scenarios.values()) {
+            String name = scenario.getName();
+            String rps = baseline.getProperty(name + ".throughput.rps");
+            if (rps != null) {
+                double measured = scenario.getSucceeded() / (double) duration;
+                double min = Double.parseDouble(rps) * (1 - tolerance);
+                if (measured < min) {
+                    regressions.add(String.format("%s throughput %.1f req/s below %.1f req/s", name, measured, min));
+                }
+            }
+            for (int percentile : new int[] {50, 99}) {
+                String latency = baseline.getProperty(name + ".latency.p" + percentile + ".ms");
+                if (latency != null) {
+                    double measured = scenario.percentileMillis(percentile);
+                    double max = Double.parseDouble(latency) * (1 + tolerance);
+                    if (measured > max) {
+                        regressions.add(String.format("%s p%d %.2f ms above %.2f ms", name, percentile, measured, max));
+                    }
+                }
+            }
+        }
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Load test regression: " + String.join(", ", regressions));
+        }
+        System.out.printf("No regression (tolerance %.0f%%, %d scenarios)%n", tolerance * 100, scenarios.size());
+    }
+
+    private static Properties loadBaseline(Path path) throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                baseline.load(reader);
+            }
+        }
+        return baseline;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.config;
+
+import cryptator.api.service.InMemorySharedCacheStore;
+import cryptator.api.service.SharedCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the shared result cache
+ * The embedded store is used unless another SharedCacheStore bean is declared
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Value("${api.cache.shared.max-entries:100000}")
+    private int sharedMaxEntries;
+
+    @Bean
+    @ConditionalOnMissingBean(SharedCacheStore.class)
+    public SharedCacheStore sharedCacheStore() {
+        return new InMemorySharedCacheStore(sharedMaxEntries);
+    }
+}
@@ -9,13 +9,19 @@
 package cryptator.api.config;
 
 import cryptator.api.filter.RequestLimitFilter;
+import cryptator.api.filter.TokenBucketRateLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
- * Configuration for limiting concurrent requests to the API
+ * Configuration for limiting requests to the API
  */
 @Configuration
 public class RequestLimitConfig {
@@ -23,10 +29,72 @@ public class RequestLimitConfig {
     @Value("${api.request.max-concurrent:100}")
     private int maxConcurrentRequests;
 
+    @Value("${api.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${api.ratelimit.rate:20}")
+    private double rate;
+
+    @Value("${api.ratelimit.burst:40}")
+    private double burst;
+
+    @Value("${api.ratelimit.max-clients:100000}")
+    private int maxClients;
+
+    @Value("${api.ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${api.cluster.secret:}")
+    private String clusterSecret;
+
+    @Value("${api.ratelimit.weight.generate:10}")
+    private double generateWeight;
+
+    @Value("${api.ratelimit.weight.solve:2}")
+    private double solveWeight;
+
+    @Value("${api.ratelimit.weight.status:0.1}")
+    private double statusWeight;
+
+    @Value("${api.ratelimit.weight.default:1}")
+    private double defaultWeight;
+
+    @Value("${api.ratelimit.api-keys:}")
+    private String apiKeys;
+
+    @Value("${api.deadline.enabled:true}")
+    private boolean deadlineEnabled;
+
+    @Value("${api.deadline.min-remaining-ms:100}")
+    private long deadlineMinRemainingMs;
+
+    @Value("${api.deadline.max-timeout-ms:3600000}")
+    private long deadlineMaxTimeoutMs;
+
+    @Bean
+    public RequestLimitFilter requestLimitFilterInstance() {
+        TokenBucketRateLimiter rateLimiter = null;
+        if (rateLimitEnabled) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            weights.put(TokenBucketRateLimiter.GENERATE, generateWeight);
+            weights.put(TokenBucketRateLimiter.SOLVE, solveWeight);
+            weights.put(TokenBucketRateLimiter.STATUS, statusWeight);
+            weights.put(TokenBucketRateLimiter.DEFAULT, defaultWeight);
+            rateLimiter = new TokenBucketRateLimiter(rate, burst, weights, maxClients);
+        }
+        RequestLimitFilter filter = new RequestLimitFilter(maxConcurrentRequests, rateLimiter, trustForwardedFor, clusterSecret);
+        filter.setApiKeys(Arrays.stream(apiKeys.split(","))
+            .map(String::trim)
+            .filter(key -> !key.isEmpty())
+            .collect(Collectors.toSet()));
+        filter.setDeadline(deadlineEnabled, deadlineMinRemainingMs, deadlineMaxTimeoutMs);
+        return filter;
+    }
+
     @Bean
-    public FilterRegistrationBean<RequestLimitFilter> requestLimitFilter() {
+    public FilterRegistrationBean<RequestLimitFilter> requestLimitFilter(RequestLimitFilter requestLimitFilterInstance) {
         FilterRegistrationBean<RequestLimitFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new RequestLimitFilter(maxConcurrentRequests));
+        registrationBean.setFilter(requestLimitFilterInstance);
         registrationBean.addUrlPatterns("/api/*");
         registrationBean.setOrder(1);
         return registrationBean;
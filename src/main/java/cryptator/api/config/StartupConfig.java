@@ -0,0 +1,39 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Report the startup time, and stop after startup during a training run
+ * A training run (api.startup.training-run=true) loads the classes of a full startup, so that the JVM
+ * can dump them in a class data sharing archive when it exits (see the appcds Maven profile).
+ */
+@Configuration
+public class StartupConfig {
+
+    @Value("${api.startup.training-run:false}")
+    private boolean trainingRun;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        System.out.println("Startup completed in " + ManagementFactory.getRuntimeMXBean().getUptime()
+            + " ms (JVM uptime)");
+        if (trainingRun) {
+            System.out.println("Training run completed, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
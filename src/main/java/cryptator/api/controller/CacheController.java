@@ -0,0 +1,71 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.controller;
+
+import cryptator.api.service.ClusterRouter;
+import cryptator.api.service.ResultCache;
+import cryptator.api.service.WordArrayCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for the result cache and the cluster routing
+ */
+@RestController
+@RequestMapping("/api/v1/cache")
+@CrossOrigin(origins = "*")
+@Tag(name = "Cache", description = "Result cache and cluster routing state")
+public class CacheController {
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private WordArrayCache wordArrayCache;
+
+    /**
+     * Get the cache counters and the cluster nodes
+     * GET /api/v1/cache
+     */
+    @Operation(summary = "Cache metrics",
+               description = "Near and shared cache sizes and hits, number-word dictionaries, and the nodes of the cluster")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getCache() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("cache", resultCache.getStats());
+        response.put("wordArrays", wordArrayCache.getStats());
+        response.put("clusterNodes", clusterRouter.getNodes());
+        response.put("self", clusterRouter.getSelf());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Clear the result cache
+     * DELETE /api/v1/cache
+     */
+    @Operation(summary = "Clear the cache",
+               description = "Remove all the results from the near and shared caches, and the number-word dictionaries")
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> clearCache() {
+        resultCache.clear();
+        wordArrayCache.clear();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+}
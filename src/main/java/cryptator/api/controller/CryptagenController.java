@@ -10,7 +10,11 @@ package cryptator.api.controller;
 
 import cryptator.api.dto.GenerateRequest;
 import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.PipelineRequest;
+import cryptator.api.dto.PipelineResponse;
 import cryptator.api.service.CryptagenService;
+import cryptator.api.service.DistributedGenerationService;
+import cryptator.api.service.PipelineService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,6 +23,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,6 +42,12 @@ public class CryptagenController {
     @Autowired
     private CryptagenService cryptagenService;
 
+    @Autowired
+    private DistributedGenerationService distributedGenerationService;
+
+    @Autowired
+    private PipelineService pipelineService;
+
     /**
      * Generate cryptarithms from a list of words
      * POST /api/v1/cryptagen/generate
@@ -77,7 +88,10 @@ public class CryptagenController {
             request.getLightPropagation(),
             request.getThreads(),
             request.getCrossGridSize(),
-            request.getAllowLeadingZeros()
+            request.getAllowLeadingZeros(),
+            request.getTopK(),
+            request.getScorers(),
+            Boolean.TRUE.equals(request.getCheckpoint())
         );
         
         return ResponseEntity.ok(response);
@@ -111,7 +125,9 @@ public class CryptagenController {
             false,
             1,
             null,
-            false // allowLeadingZeros
+            false, // allowLeadingZeros
+            null,
+            null
         );
         
         return ResponseEntity.ok(response);
@@ -159,9 +175,73 @@ public class CryptagenController {
             request.getLightPropagation(),
             request.getThreads(),
             request.getCrossGridSize(),
-            request.getAllowLeadingZeros()
+            request.getAllowLeadingZeros(),
+            request.getTopK(),
+            request.getScorers(),
+            Boolean.TRUE.equals(request.getCheckpoint())
         );
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Generate cryptarithms on all the nodes of the cluster
+     * POST /api/v1/cryptagen/generate-distributed
+     *
+     * The generation is split into ranges of numbers of words, from minWords to maxWords
+     * (by default, from 2 words, one range per number up to 10 and the larger ones in the last range),
+     * and each partition runs on one node.
+     * The progress is reported by the task status.
+     */
+    @Operation(summary = "Distributed generation",
+               description = "Split the generation by number of words (minWords to maxWords) across the nodes of the cluster and merge the results")
+    @PostMapping("/generate-distributed")
+    public ResponseEntity<GenerateResponse> generateDistributed(@Valid @RequestBody GenerateRequest request) {
+        if (request.getMinWords() != null && request.getMaxWords() != null
+            && request.getMinWords() > request.getMaxWords()) {
+            GenerateResponse errorResponse = new GenerateResponse();
+            errorResponse.setSuccess(false);
+            errorResponse.setError("minWords must not be greater than maxWords");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        return ResponseEntity.ok(distributedGenerationService.generate(request));
+    }
+
+    /**
+     * Start a publishing pipeline: generate, keep the cryptarithms with a unique solution, store them
+     * POST /api/v1/cryptagen/pipeline
+     *
+     * The job runs in the background; its stages are reported by the task status and by
+     * GET /api/v1/cryptagen/pipeline/{taskId}.
+     */
+    @Operation(summary = "Start a publishing pipeline",
+               description = "Generate cryptarithms, check that each one has a unique solution and store the survivors, as concurrent stages connected by bounded queues")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Pipeline started",
+                     content = @Content(schema = @Schema(implementation = PipelineResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Too many pipelines running")
+    })
+    @PostMapping("/pipeline")
+    public ResponseEntity<PipelineResponse> startPipeline(@Valid @RequestBody PipelineRequest request) {
+        PipelineResponse response = pipelineService.start(request);
+        if (response.getState() == PipelineResponse.State.FAILED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Get the state of a publishing pipeline
+     * GET /api/v1/cryptagen/pipeline/{taskId}
+     */
+    @Operation(summary = "Pipeline state", description = "Stage counters of a running or finished publishing pipeline")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pipeline found"),
+        @ApiResponse(responseCode = "404", description = "Unknown pipeline")
+    })
+    @GetMapping("/pipeline/{taskId}")
+    public ResponseEntity<PipelineResponse> getPipeline(@PathVariable String taskId) {
+        PipelineResponse response = pipelineService.getStatus(taskId);
+        return response != null ? ResponseEntity.ok(response) : ResponseEntity.notFound().build();
+    }
 }
@@ -8,9 +8,18 @@
  */
 package cryptator.api.controller;
 
+import cryptator.api.dto.BaseSweepRequest;
+import cryptator.api.dto.BaseSweepResponse;
+import cryptator.api.dto.CountResponse;
 import cryptator.api.dto.SolveRequest;
 import cryptator.api.dto.SolveResponse;
+import cryptator.api.dto.UniquenessRequest;
+import cryptator.api.dto.UniquenessResponse;
+import cryptator.api.filter.RequestLimitFilter;
+import cryptator.api.filter.TokenBucketRateLimiter;
 import cryptator.api.service.CryptatorService;
+import cryptator.api.service.InfeasibilityAnalyzer;
+import cryptator.api.service.NegativeResultCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,15 +28,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for solving cryptarithms
  */
 @RestController
+@Validated
 @RequestMapping("/api/v1/cryptator")
 @CrossOrigin(origins = "*")
 @Tag(name = "Cryptator", description = "Solve cryptarithms using constraint programming")
@@ -36,6 +57,18 @@ public class CryptatorController {
     @Autowired
     private CryptatorService cryptatorService;
 
+    @Autowired
+    private NegativeResultCache negativeResultCache;
+
+    @Autowired
+    private InfeasibilityAnalyzer infeasibilityAnalyzer;
+
+    @Autowired
+    private RequestLimitFilter requestLimitFilter;
+
+    @Value("${api.uniqueness.max-batch:100}")
+    private int maxUniquenessBatch;
+
     /**
      * Health check endpoint
      */
@@ -82,7 +115,8 @@ public class CryptatorController {
             request.getExportGraphviz(),
             request.getAllowLeadingZeros() != null ? request.getAllowLeadingZeros() : false,
             request.getHornerScheme() != null ? request.getHornerScheme() : false,
-            request.getAssignments()
+            request.getAssignments(),
+            Boolean.TRUE.equals(request.getCheckpoint())
         );
         
         return ResponseEntity.ok(response);
@@ -123,4 +157,184 @@ public class CryptatorController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Count the solutions of a cryptarithm
+     * POST /api/v1/cryptator/count
+     */
+    @Operation(summary = "Count solutions",
+               description = "Count the solutions of a cryptarithm without returning them. "
+                   + "The count is exact when complete is true; checkSolution and exportGraphviz are ignored.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Solutions counted",
+                     content = @Content(schema = @Schema(implementation = CountResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    @PostMapping("/count")
+    public ResponseEntity<CountResponse> count(@Valid @RequestBody SolveRequest request) {
+        return ResponseEntity.ok(cryptatorService.countSolutions(request));
+    }
+
+    /**
+     * Solve a cryptarithm in a range of bases
+     * POST /api/v1/cryptator/sweep
+     *
+     * Example request body:
+     * {
+     *   "cryptarithm": "send+more=money",
+     *   "minBase": 8,
+     *   "maxBase": 16,
+     *   "timeLimit": 10
+     * }
+     */
+    @Operation(summary = "Multi-base sweep",
+               description = "Parse a cryptarithm once and count its solutions in each base of [minBase, maxBase], in parallel. "
+                   + "Bases with fewer digits than symbols are skipped. Returns the count, first solution and time per base. "
+                   + "Each base is charged to the rate limit as one solve request.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bases solved",
+                     content = @Content(schema = @Schema(implementation = BaseSweepResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded by the number of bases")
+    })
+    @PostMapping("/sweep")
+    public ResponseEntity<BaseSweepResponse> sweep(@Valid @RequestBody BaseSweepRequest request,
+                                                   HttpServletRequest httpRequest) {
+        // The filter charged one solve request; the other bases are charged here, once the body is read
+        int bases = request.getMaxBase() - request.getMinBase() + 1;
+        long retryAfterNanos = requestLimitFilter.chargeExtra(httpRequest, TokenBucketRateLimiter.SOLVE, bases - 1);
+        if (retryAfterNanos > 0) {
+            long retryAfterSeconds = retryAfterSeconds(retryAfterNanos);
+            BaseSweepResponse errorResponse = new BaseSweepResponse();
+            errorResponse.setCryptarithm(request.getCryptarithm());
+            errorResponse.setError("Rate limit exceeded: a sweep of " + bases + " bases costs " + bases
+                + " solve requests. Please retry in " + retryAfterSeconds + " s.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+        }
+        return ResponseEntity.ok(cryptatorService.sweepBases(request));
+    }
+
+    /**
+     * Check that a cryptarithm has exactly one solution
+     * POST /api/v1/cryptator/uniqueness
+     */
+    @Operation(summary = "Check uniqueness",
+               description = "Check whether a cryptarithm has exactly one solution. The search stops at the second solution. "
+                   + "Verdict: UNIQUE, MULTIPLE, NONE, or UNKNOWN if the search was stopped before a verdict.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verdict computed",
+                     content = @Content(schema = @Schema(implementation = UniquenessResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    @PostMapping("/uniqueness")
+    public ResponseEntity<UniquenessResponse> checkUniqueness(@Valid @RequestBody UniquenessRequest request) {
+        return ResponseEntity.ok(cryptatorService.checkUniqueness(request));
+    }
+
+    /**
+     * Check the uniqueness of many cryptarithms in parallel
+     * POST /api/v1/cryptator/uniqueness/batch
+     */
+    @Operation(summary = "Check uniqueness (batch)",
+               description = "Check many cryptarithms in parallel. Results are returned in the order of the requests. "
+                   + "Each puzzle is charged to the rate limit as one solve request.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verdicts computed"),
+        @ApiResponse(responseCode = "400", description = "Invalid input or batch too large"),
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded by the number of puzzles")
+    })
+    @PostMapping("/uniqueness/batch")
+    public ResponseEntity<Map<String, Object>> checkUniquenessBatch(@RequestBody List<@Valid UniquenessRequest> requests,
+                                                                    HttpServletRequest httpRequest) {
+        Map<String, Object> response = new HashMap<>();
+        if (requests.size() > maxUniquenessBatch) {
+            response.put("error", "Batch too large: " + requests.size() + " puzzles, at most " + maxUniquenessBatch);
+            return ResponseEntity.badRequest().body(response);
+        }
+        // The filter charged one solve request; the other puzzles are charged here, once the body is read
+        long retryAfterNanos = requestLimitFilter.chargeExtra(httpRequest, TokenBucketRateLimiter.SOLVE,
+                requests.size() - 1);
+        if (retryAfterNanos > 0) {
+            long retryAfterSeconds = retryAfterSeconds(retryAfterNanos);
+            response.put("error", "Rate limit exceeded: a batch of " + requests.size() + " puzzles costs "
+                + requests.size() + " solve requests. Please retry in " + retryAfterSeconds + " s.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(response);
+        }
+        List<UniquenessResponse> results = cryptatorService.checkUniquenessBatch(requests);
+        Map<UniquenessResponse.Verdict, Integer> verdicts = new EnumMap<>(UniquenessResponse.Verdict.class);
+        for (UniquenessResponse.Verdict verdict : UniquenessResponse.Verdict.values()) {
+            verdicts.put(verdict, 0);
+        }
+        for (UniquenessResponse result : results) {
+            verdicts.merge(result.getVerdict(), 1, Integer::sum);
+        }
+        response.put("count", results.size());
+        response.put("verdicts", verdicts);
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * List the puzzles known to have no solution or to time out
+     * GET /api/v1/cryptator/expensive
+     */
+    @Operation(summary = "Known expensive puzzles",
+               description = "Puzzles remembered by the negative cache, the most requested first. "
+                   + "Repeats are short-circuited unless retried with a strictly larger timeLimit.")
+    @GetMapping("/expensive")
+    public ResponseEntity<Map<String, Object>> getExpensivePuzzles() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", negativeResultCache.size());
+        response.put("shortCircuitedRequests", negativeResultCache.getHitCount());
+        response.put("puzzles", negativeResultCache.getExpensivePuzzles());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Forget the known expensive puzzles
+     * DELETE /api/v1/cryptator/expensive
+     */
+    @Operation(summary = "Clear the negative cache", description = "Forget all the puzzles remembered by the negative cache")
+    @DeleteMapping("/expensive")
+    public ResponseEntity<Map<String, Object>> clearExpensivePuzzles() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("cleared", negativeResultCache.size());
+        negativeResultCache.clear();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Statistics of the infeasibility pre-check
+     * GET /api/v1/cryptator/precheck
+     */
+    @Operation(summary = "Infeasibility pre-check statistics",
+               description = "Number of puzzles analyzed before solving, and of solver invocations saved by each rule")
+    @GetMapping("/precheck")
+    public ResponseEntity<Map<String, Object>> getPrecheckStats() {
+        return ResponseEntity.ok(infeasibilityAnalyzer.getStats());
+    }
+
+    /**
+     * Delay before a request over the rate limit can be retried, in whole seconds (Retry-After header)
+     */
+    private static long retryAfterSeconds(long retryAfterNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+    }
+
+    /**
+     * Reject a request whose elements are invalid, e.g. a puzzle of a uniqueness batch
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolation(ConstraintViolationException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getConstraintViolations().stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", ")));
+        return ResponseEntity.badRequest().body(response);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.controller;
+
+import cryptator.api.service.HealthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for the probes of the load balancer
+ * These endpoints are neither rate limited nor counted in the concurrent requests
+ */
+@RestController
+@RequestMapping("/api/v1/health")
+@CrossOrigin(origins = "*")
+@Tag(name = "Health", description = "Liveness and load-aware readiness of the instance")
+public class HealthController {
+
+    @Autowired
+    private HealthService healthService;
+
+    /**
+     * Check whether the process is alive
+     * GET /api/v1/health/live
+     */
+    @Operation(summary = "Liveness probe", description = "Always UP while the server answers")
+    @GetMapping("/live")
+    public ResponseEntity<Map<String, Object>> live() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "UP");
+        response.put("uptimeMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Check whether the instance can receive traffic
+     * GET /api/v1/health/ready
+     */
+    @Operation(summary = "Readiness probe",
+               description = "Ready once the startup warm-up is over, while request permits, solver queue, "
+                   + "recent p99 latency and heap headroom are within their thresholds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ready"),
+        @ApiResponse(responseCode = "503", description = "Warming up, saturated or draining before shutdown")
+    })
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> readiness = healthService.getReadiness();
+        boolean ready = "READY".equals(readiness.get("status"));
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(readiness);
+    }
+}
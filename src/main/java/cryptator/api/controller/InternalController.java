@@ -0,0 +1,55 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.controller;
+
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.service.ClusterRouter;
+import cryptator.api.service.CryptagenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the requests exchanged between the nodes of a cluster
+ * Only requests carrying the cluster secret in the forwarded header are accepted; without a configured
+ * secret (api.cluster.secret) these endpoints reject every request.
+ */
+@RestController
+@RequestMapping("/api/v1/internal")
+@Tag(name = "Internal", description = "Endpoints called by the other nodes of the cluster")
+public class InternalController {
+
+    @Autowired
+    private CryptagenService cryptagenService;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    /**
+     * Run a partition of a distributed generation on this node
+     * POST /api/v1/internal/cryptagen/partition
+     */
+    @Operation(summary = "Generate a partition", description = "Run one partition of a distributed generation on this node")
+    @PostMapping("/cryptagen/partition")
+    public ResponseEntity<GenerateResponse> generatePartition(
+            @RequestHeader(value = ClusterRouter.FORWARDED_HEADER, required = false) String forwarded,
+            @RequestBody GenerateRequest request) {
+        if (!clusterRouter.isAuthorizedPeer(forwarded)) {
+            GenerateResponse errorResponse = new GenerateResponse();
+            errorResponse.setSuccess(false);
+            errorResponse.setError("Only the nodes of the cluster may run partitions");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+        return ResponseEntity.ok(cryptagenService.generatePartition(request));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.controller;
+
+import cryptator.api.filter.RequestLimitFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller exposing the state of the request limits
+ */
+@RestController
+@RequestMapping("/api/v1/limits")
+@CrossOrigin(origins = "*")
+@Tag(name = "Limits", description = "Request limiter state and rejections")
+public class LimitsController {
+
+    @Autowired
+    private RequestLimitFilter requestLimitFilter;
+
+    /**
+     * Get the limiter state and counters
+     * GET /api/v1/limits
+     */
+    @Operation(summary = "Limiter metrics", description = "Concurrent request permits and per-client rate limiter counters")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLimits() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("maxConcurrentRequests", requestLimitFilter.getMaxConcurrentRequests());
+        response.put("availablePermits", requestLimitFilter.getAvailablePermits());
+        if (requestLimitFilter.getRateLimiter() != null) {
+            response.put("rateLimit", requestLimitFilter.getRateLimiter().getStats());
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.controller;
+
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.SolveRequest;
+import cryptator.api.dto.SolveResponse;
+import cryptator.api.service.StreamingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.Map;
+
+/**
+ * REST Controller for streaming and long-poll clients
+ * Results are streamed as Server-Sent Events without holding a request thread
+ */
+@RestController
+@RequestMapping("/api/v1/reactive")
+@CrossOrigin(origins = "*")
+@Tag(name = "Reactive", description = "Stream solutions and generated cryptarithms, long-poll task status")
+public class ReactiveController {
+
+    @Autowired
+    private StreamingService streamingService;
+
+    /**
+     * Stream the solutions of a cryptarithm
+     * POST /api/v1/reactive/cryptator/solve
+     */
+    @Operation(summary = "Stream solutions", description = "Solve a cryptarithm and stream each solution as a server-sent event")
+    @PostMapping(value = "/cryptator/solve", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SolveResponse.Solution>> solve(@Valid @RequestBody SolveRequest request) {
+        return streamingService.streamSolutions(request);
+    }
+
+    /**
+     * Stream generated cryptarithms
+     * POST /api/v1/reactive/cryptagen/generate
+     */
+    @Operation(summary = "Stream generated cryptarithms", description = "Generate cryptarithms and stream each one as a server-sent event")
+    @PostMapping(value = "/cryptagen/generate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<GenerateResponse.GeneratedCryptarithm>> generate(@Valid @RequestBody GenerateRequest request) {
+        return streamingService.streamCryptarithms(request);
+    }
+
+    /**
+     * Long-poll the status of a task
+     * GET /api/v1/reactive/tasks/{taskId}/status?waitMs=30000
+     */
+    @Operation(summary = "Long-poll task status", description = "Return the task status once the task completes, or after waitMs")
+    @GetMapping("/tasks/{taskId}/status")
+    public Mono<Map<String, Object>> status(
+            @Parameter(description = "Task ID", required = true)
+            @PathVariable String taskId,
+            @Parameter(description = "Maximum time to wait for the task to complete (ms)", example = "30000")
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return streamingService.awaitTaskStatus(taskId, waitMs);
+    }
+}
@@ -8,6 +8,10 @@
  */
 package cryptator.api.controller;
 
+import cryptator.api.service.Checkpoint;
+import cryptator.api.service.CryptagenService;
+import cryptator.api.service.CryptatorService;
+import cryptator.api.service.RequestCoalescer;
 import cryptator.api.service.TaskManager;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +19,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +38,15 @@ public class TaskController {
     @Autowired
     private TaskManager taskManager;
     
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private CryptatorService cryptatorService;
+
+    @Autowired
+    private CryptagenService cryptagenService;
+    
     /**
      * Cancel a running task
      * POST /api/v1/tasks/{taskId}/cancel
@@ -68,24 +82,82 @@ public class TaskController {
      */
     @GetMapping("/{taskId}/status")
     public ResponseEntity<Map<String, Object>> getTaskStatus(@PathVariable String taskId) {
-        Map<String, Object> response = new HashMap<>();
-        
-        TaskManager.TaskInfo info = taskManager.getTaskInfo(taskId);
-        
-        if (info != null) {
-            response.put("found", true);
-            response.put("taskId", taskId);
-            response.put("type", info.getType());
-            response.put("elapsedTimeMs", info.getElapsedTime());
-            response.put("cancelled", info.isCancelled());
-            response.put("status", info.isCancelled() ? "CANCELLED" : "RUNNING");
-        } else {
-            response.put("found", false);
-            response.put("taskId", taskId);
-            response.put("status", "NOT_FOUND");
+        return ResponseEntity.ok(taskManager.getTaskStatus(taskId));
+    }
+    
+    /**
+     * Resume an interrupted enumeration from its checkpoint
+     * POST /api/v1/tasks/{taskId}/resume
+     */
+    @Operation(summary = "Resume a task",
+               description = "Run again a solve with solutionLimit=0 and checkpoint=true, keeping the solutions of its checkpoint, "
+                   + "or generate the remaining numbers of words of a generation with checkpoint=true. "
+                   + "Requires the resumeToken of the response of the task; a solve that timed out also requires a larger timeLimit")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task resumed and completed (or interrupted again)"),
+        @ApiResponse(responseCode = "400", description = "Negative time limit"),
+        @ApiResponse(responseCode = "403", description = "Missing or wrong resume token"),
+        @ApiResponse(responseCode = "404", description = "No checkpoint for this task"),
+        @ApiResponse(responseCode = "409", description = "Task still running, interrupted without resumable progress, "
+            + "or timed out and resumed without a larger time limit")
+    })
+    @PostMapping("/{taskId}/resume")
+    public ResponseEntity<Object> resumeTask(
+            @Parameter(description = "Task ID to resume", required = true)
+            @PathVariable String taskId,
+            @Parameter(description = "resumeToken of the response of the task")
+            @RequestHeader(value = Checkpoint.TOKEN_HEADER, required = false) String resumeToken,
+            @Parameter(description = "Time limit in seconds of the resumed solve (0 = none), instead of the one of the request")
+            @RequestParam(required = false) Integer timeLimit) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("taskId", taskId);
+        if (timeLimit != null && timeLimit < 0) {
+            error.put("message", "timeLimit must be positive or 0");
+            return ResponseEntity.badRequest().body(error);
         }
-        
-        return ResponseEntity.ok(response);
+        // The task id is claimed before its checkpoint is read, so that concurrent resumes cannot both run it
+        if (!taskManager.tryRegisterTask("RESUME", taskId)) {
+            error.put("message", "Task is still running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        Checkpoint checkpoint = taskManager.loadCheckpoint(taskId);
+        ResponseEntity<Object> refused = refuseResume(checkpoint, resumeToken, timeLimit, error);
+        if (refused != null) {
+            taskManager.unregisterTask(taskId);
+            return refused;
+        }
+        // The service registers the task again under its type, and unregisters it once it is over
+        if (Checkpoint.GENERATE.equals(checkpoint.getType())) {
+            return ResponseEntity.ok(cryptagenService.resumeGenerate(checkpoint));
+        }
+        return ResponseEntity.ok(cryptatorService.resumeSolve(checkpoint, timeLimit));
+    }
+
+    /**
+     * Check that a task can be resumed from its checkpoint
+     * @return the error response, or null if the task can be resumed
+     */
+    private ResponseEntity<Object> refuseResume(Checkpoint checkpoint, String resumeToken, Integer timeLimit,
+                                                Map<String, Object> error) {
+        if (checkpoint == null) {
+            error.put("message", "No checkpoint for this task");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        if (!checkpoint.isResumable()) {
+            error.put("message", "Task was interrupted (" + checkpoint.getReason() + ") and cannot be resumed; submit it again");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        if (!checkpoint.acceptsResumeToken(resumeToken)) {
+            error.put("message", "Missing or wrong " + Checkpoint.TOKEN_HEADER + " header");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+        if (Checkpoint.SOLVE.equals(checkpoint.getType()) && !checkpoint.canResumeWithin(timeLimit)) {
+            error.put("message", "The search ran out of its time limit of " + checkpoint.getTimedOutAfter()
+                + " s and would stop at the same point; resume it with a larger timeLimit, or 0 for none");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        return null;
     }
     
     /**
@@ -96,6 +168,8 @@ public class TaskController {
     public ResponseEntity<Map<String, Object>> getTaskStats() {
         Map<String, Object> response = new HashMap<>();
         response.put("runningTasks", taskManager.getRunningTasksCount());
+        response.put("inFlightComputations", requestCoalescer.getInFlightCount());
+        response.put("coalescedRequests", requestCoalescer.getCoalescedCount());
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Request DTO for solving one cryptarithm in a range of arithmetic bases
+ */
+public class BaseSweepRequest {
+
+    @NotBlank(message = "Cryptarithm cannot be empty")
+    private String cryptarithm;
+
+    /**
+     * Optional task ID provided by the client for cancellation support
+     */
+    private String taskId;
+
+    private String solverType = "SCALAR";
+
+    @NotNull
+    @Min(value = 2, message = "minBase must be at least 2")
+    private Integer minBase = 2;
+
+    @NotNull
+    @Max(value = 64, message = "maxBase must be at most 64")
+    private Integer maxBase = 16;
+
+    /** Maximum number of solutions counted per base (0 = all) */
+    private Integer solutionLimit = 0;
+
+    /** Time limit per base in seconds */
+    @NotNull
+    @Min(value = 1, message = "timeLimit must be at least 1 second per base")
+    private Integer timeLimit = 10;
+
+    private Boolean allowLeadingZeros = false;
+
+    private Boolean hornerScheme = false;
+
+    public String getCryptarithm() {
+        return cryptarithm;
+    }
+
+    public void setCryptarithm(String cryptarithm) {
+        this.cryptarithm = cryptarithm;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getSolverType() {
+        return solverType;
+    }
+
+    public void setSolverType(String solverType) {
+        this.solverType = solverType;
+    }
+
+    public Integer getMinBase() {
+        return minBase;
+    }
+
+    public void setMinBase(Integer minBase) {
+        this.minBase = minBase;
+    }
+
+    public Integer getMaxBase() {
+        return maxBase;
+    }
+
+    public void setMaxBase(Integer maxBase) {
+        this.maxBase = maxBase;
+    }
+
+    public Integer getSolutionLimit() {
+        return solutionLimit;
+    }
+
+    public void setSolutionLimit(Integer solutionLimit) {
+        this.solutionLimit = solutionLimit;
+    }
+
+    public Integer getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(Integer timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public Boolean getAllowLeadingZeros() {
+        return allowLeadingZeros;
+    }
+
+    public void setAllowLeadingZeros(Boolean allowLeadingZeros) {
+        this.allowLeadingZeros = allowLeadingZeros;
+    }
+
+    public Boolean getHornerScheme() {
+        return hornerScheme;
+    }
+
+    public void setHornerScheme(Boolean hornerScheme) {
+        this.hornerScheme = hornerScheme;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a multi-base sweep: one compact summary per base
+ */
+public class BaseSweepResponse {
+
+    public static class BaseResult {
+        private int base;
+        private long solutionCount;
+        /** Assignment of the first solution, null if there is none */
+        private String firstSolution;
+        private long executionTimeMs;
+        /** Rule proving that there is no solution in this base, when the solver was not invoked */
+        private String infeasibility;
+        private String error;
+
+        public int getBase() {
+            return base;
+        }
+
+        public void setBase(int base) {
+            this.base = base;
+        }
+
+        public long getSolutionCount() {
+            return solutionCount;
+        }
+
+        public void setSolutionCount(long solutionCount) {
+            this.solutionCount = solutionCount;
+        }
+
+        public String getFirstSolution() {
+            return firstSolution;
+        }
+
+        public void setFirstSolution(String firstSolution) {
+            this.firstSolution = firstSolution;
+        }
+
+        public long getExecutionTimeMs() {
+            return executionTimeMs;
+        }
+
+        public void setExecutionTimeMs(long executionTimeMs) {
+            this.executionTimeMs = executionTimeMs;
+        }
+
+        public String getInfeasibility() {
+            return infeasibility;
+        }
+
+        public void setInfeasibility(String infeasibility) {
+            this.infeasibility = infeasibility;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+
+    private String cryptarithm;
+    private String taskId;
+    private boolean success;
+    private String error;
+    private long executionTimeMs;
+    private List<BaseResult> results;
+
+    public String getCryptarithm() {
+        return cryptarithm;
+    }
+
+    public void setCryptarithm(String cryptarithm) {
+        this.cryptarithm = cryptarithm;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+
+    public void setExecutionTimeMs(long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+
+    public List<BaseResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BaseResult> results) {
+        this.results = results;
+    }
+}
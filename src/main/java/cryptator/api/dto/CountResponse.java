@@ -0,0 +1,119 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+/**
+ * Response DTO for counting the solutions of a cryptarithm, without the solutions themselves
+ */
+public class CountResponse {
+
+    private boolean success;
+    private String cryptarithm;
+    private long solutionCount;
+    /** True if the search explored the whole space: solutionCount is the exact number of solutions */
+    private boolean complete;
+    /** True if the search was stopped by the solution limit */
+    private boolean solutionLimitReached;
+    /** Time to the first solution, null if there is none */
+    private Long firstSolutionTimeMs;
+    private String error;
+    private long executionTimeMs;
+    private String taskId;
+    private boolean cached;
+    /** Rule proving that the puzzle has no solution, when the solver was not invoked */
+    private String infeasibility;
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getCryptarithm() {
+        return cryptarithm;
+    }
+
+    public void setCryptarithm(String cryptarithm) {
+        this.cryptarithm = cryptarithm;
+    }
+
+    public long getSolutionCount() {
+        return solutionCount;
+    }
+
+    public void setSolutionCount(long solutionCount) {
+        this.solutionCount = solutionCount;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public boolean isSolutionLimitReached() {
+        return solutionLimitReached;
+    }
+
+    public void setSolutionLimitReached(boolean solutionLimitReached) {
+        this.solutionLimitReached = solutionLimitReached;
+    }
+
+    public Long getFirstSolutionTimeMs() {
+        return firstSolutionTimeMs;
+    }
+
+    public void setFirstSolutionTimeMs(Long firstSolutionTimeMs) {
+        this.firstSolutionTimeMs = firstSolutionTimeMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+
+    public void setExecutionTimeMs(long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public String getInfeasibility() {
+        return infeasibility;
+    }
+
+    public void setInfeasibility(String infeasibility) {
+        this.infeasibility = infeasibility;
+    }
+}
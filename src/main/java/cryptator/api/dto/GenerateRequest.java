@@ -83,6 +83,26 @@ public class GenerateRequest {
      * Autoriser les zéros en début de mot
      */
     private Boolean allowLeadingZeros = false;
+    
+    // ===== Classement =====
+    
+    /**
+     * Ne garder que les K meilleurs cryptarithmes (null = tous, sans classement)
+     * Non appliqué à la génération en streaming.
+     */
+    private Integer topK;
+    
+    /**
+     * Fonctions de score et leurs poids, par nom : uniqueSolution, longestWords, fewestRepeatedLetters
+     * (null = toutes, de poids 1)
+     */
+    private java.util.Map<String, Double> scorers;
+
+    /**
+     * Sauvegarder sur disque les nombres de mots déjà générés (minWords < maxWords), pour reprendre
+     * la génération si elle n'aboutit pas
+     */
+    private Boolean checkpoint = false;
 
     public List<String> getWords() {
         return words;
@@ -227,4 +247,28 @@ public class GenerateRequest {
     public void setTaskId(String taskId) {
         this.taskId = taskId;
     }
+
+    public Integer getTopK() {
+        return topK;
+    }
+
+    public void setTopK(Integer topK) {
+        this.topK = topK;
+    }
+
+    public java.util.Map<String, Double> getScorers() {
+        return scorers;
+    }
+
+    public void setScorers(java.util.Map<String, Double> scorers) {
+        this.scorers = scorers;
+    }
+
+    public Boolean getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Boolean checkpoint) {
+        this.checkpoint = checkpoint;
+    }
 }
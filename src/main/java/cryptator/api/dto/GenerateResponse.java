@@ -20,10 +20,27 @@ public class GenerateResponse {
     private String error;
     private long executionTimeMs;
     private String taskId;
+    private boolean cached;
+    /** Input words removed by the preprocessing of the word list as duplicates or blanks */
+    private Integer duplicateWords;
+    /** Distinct words removed by the preprocessing of the word list as unusable */
+    private Integer prunedWords;
+    /** Word combinations no longer explored by the generator after preprocessing */
+    private Long prunedCombinations;
+    /** Generated cryptarithms dropped as equivalent to an earlier one (operands of + and * reordered) */
+    private Long duplicatesDropped;
+    /** Cryptarithms scored by a ranked generation, of which only the best topK are returned */
+    private Long rankedCandidates;
+    /** Token required to resume the task from its checkpoint, when it saved one and did not complete */
+    private String resumeToken;
 
     public static class GeneratedCryptarithm {
         private String cryptarithm;
         private String solution;
+        /** Weighted score of a ranked generation, null otherwise */
+        private Double score;
+        /** Score of each scoring function, in [0, 1] */
+        private java.util.Map<String, Double> scores;
 
         public GeneratedCryptarithm() {}
 
@@ -47,6 +64,22 @@ public class GenerateResponse {
         public void setSolution(String solution) {
             this.solution = solution;
         }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public java.util.Map<String, Double> getScores() {
+            return scores;
+        }
+
+        public void setScores(java.util.Map<String, Double> scores) {
+            this.scores = scores;
+        }
     }
 
     public boolean isSuccess() {
@@ -88,4 +121,60 @@ public class GenerateResponse {
     public void setTaskId(String taskId) {
         this.taskId = taskId;
     }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public Integer getDuplicateWords() {
+        return duplicateWords;
+    }
+
+    public void setDuplicateWords(Integer duplicateWords) {
+        this.duplicateWords = duplicateWords;
+    }
+
+    public Integer getPrunedWords() {
+        return prunedWords;
+    }
+
+    public void setPrunedWords(Integer prunedWords) {
+        this.prunedWords = prunedWords;
+    }
+
+    public Long getPrunedCombinations() {
+        return prunedCombinations;
+    }
+
+    public void setPrunedCombinations(Long prunedCombinations) {
+        this.prunedCombinations = prunedCombinations;
+    }
+
+    public Long getDuplicatesDropped() {
+        return duplicatesDropped;
+    }
+
+    public void setDuplicatesDropped(Long duplicatesDropped) {
+        this.duplicatesDropped = duplicatesDropped;
+    }
+
+    public Long getRankedCandidates() {
+        return rankedCandidates;
+    }
+
+    public void setRankedCandidates(Long rankedCandidates) {
+        this.rankedCandidates = rankedCandidates;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Request DTO for a publishing pipeline: generate cryptarithms, keep those with a unique solution, store them
+ */
+public class PipelineRequest {
+
+    /**
+     * Optional task ID provided by the client for cancellation support
+     */
+    private String taskId;
+
+    @Valid
+    @NotNull(message = "Generation cannot be empty")
+    private GenerateRequest generation;
+
+    /**
+     * Solver of the uniqueness check of each candidate
+     */
+    private String solverType = "SCALAR";
+
+    /**
+     * Time limit (s) of the uniqueness check of each candidate; a candidate not proven unique in time is dropped
+     */
+    private Integer verifyTimeLimit = 10;
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public GenerateRequest getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(GenerateRequest generation) {
+        this.generation = generation;
+    }
+
+    public String getSolverType() {
+        return solverType;
+    }
+
+    public void setSolverType(String solverType) {
+        this.solverType = solverType;
+    }
+
+    public Integer getVerifyTimeLimit() {
+        return verifyTimeLimit;
+    }
+
+    public void setVerifyTimeLimit(Integer verifyTimeLimit) {
+        this.verifyTimeLimit = verifyTimeLimit;
+    }
+}
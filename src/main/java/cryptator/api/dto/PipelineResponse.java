@@ -0,0 +1,141 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import java.util.Map;
+
+/**
+ * Response DTO for a publishing pipeline, running or finished
+ */
+public class PipelineResponse {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Counters of one stage of the pipeline
+     */
+    public static class StageStats {
+        /** Items taken from the input queue (or generated, for the first stage) */
+        private long processed;
+        /** Items passed to the next stage */
+        private long emitted;
+        private double throughputPerSecond;
+        /** Items waiting in the input queue, null for the first stage */
+        private Integer queueDepth;
+        private Integer queueCapacity;
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public void setProcessed(long processed) {
+            this.processed = processed;
+        }
+
+        public long getEmitted() {
+            return emitted;
+        }
+
+        public void setEmitted(long emitted) {
+            this.emitted = emitted;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public void setThroughputPerSecond(double throughputPerSecond) {
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        public Integer getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(Integer queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    private boolean success;
+    private String taskId;
+    private State state;
+    /** Counters of the generate, verify and persist stages */
+    private Map<String, StageStats> stages;
+    /** File of the stored cryptarithms, one JSON object per line */
+    private String outputFile;
+    private String error;
+    private long executionTimeMs;
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Map<String, StageStats> getStages() {
+        return stages;
+    }
+
+    public void setStages(Map<String, StageStats> stages) {
+        this.stages = stages;
+    }
+
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    public void setOutputFile(String outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+
+    public void setExecutionTimeMs(long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+}
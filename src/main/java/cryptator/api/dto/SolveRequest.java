@@ -47,9 +47,15 @@ public class SolveRequest {
     
     /**
      * Manual assignments: map of symbol to digit (e.g., {"s": 9, "e": 5})
+     * Only the solutions agreeing with them are returned, and counted against solutionLimit.
      */
     private java.util.Map<String, Integer> assignments;
 
+    /**
+     * Save the progress of an enumeration (solutionLimit=0) on disk, to resume it if it does not complete
+     */
+    private Boolean checkpoint = false;
+
     public String getCryptarithm() {
         return cryptarithm;
     }
@@ -130,6 +136,14 @@ public class SolveRequest {
         this.assignments = assignments;
     }
 
+    public Boolean getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Boolean checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     public String getTaskId() {
         return taskId;
     }
@@ -22,6 +22,11 @@ public class SolveResponse {
     private long executionTimeMs;
     private int solutionCount;
     private String taskId;
+    private boolean cached;
+    /** Rule proving that the puzzle has no solution, when the solver was not invoked */
+    private String infeasibility;
+    /** Token required to resume the task from its checkpoint, when it saved one and did not complete */
+    private String resumeToken;
 
     public static class Solution {
         private String assignment;
@@ -116,4 +121,28 @@ public class SolveResponse {
     public void setTaskId(String taskId) {
         this.taskId = taskId;
     }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public String getInfeasibility() {
+        return infeasibility;
+    }
+
+    public void setInfeasibility(String infeasibility) {
+        this.infeasibility = infeasibility;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for the uniqueness check of a cryptarithm
+ */
+public class UniquenessResponse {
+
+    public enum Verdict {
+        /** Exactly one solution */
+        UNIQUE,
+        /** At least two solutions */
+        MULTIPLE,
+        /** No solution */
+        NONE,
+        /** The search was stopped (time limit, cancellation, error) before a verdict */
+        UNKNOWN
+    }
+
+    private String cryptarithm;
+    private Verdict verdict;
+    /** Solutions found, at most two */
+    private List<SolveResponse.Solution> solutions;
+    private String error;
+    private long executionTimeMs;
+    private String taskId;
+    private boolean cached;
+
+    public String getCryptarithm() {
+        return cryptarithm;
+    }
+
+    public void setCryptarithm(String cryptarithm) {
+        this.cryptarithm = cryptarithm;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    public void setVerdict(Verdict verdict) {
+        this.verdict = verdict;
+    }
+
+    public List<SolveResponse.Solution> getSolutions() {
+        return solutions;
+    }
+
+    public void setSolutions(List<SolveResponse.Solution> solutions) {
+        this.solutions = solutions;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+
+    public void setExecutionTimeMs(long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+}
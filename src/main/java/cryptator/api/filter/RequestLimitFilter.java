@@ -8,6 +8,8 @@
  */
 package cryptator.api.filter;
 
+import cryptator.api.service.ClusterRouter;
+import cryptator.api.service.RequestDeadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -18,25 +20,64 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Filter to limit the number of concurrent requests to the API
- * Uses a Semaphore to control access and returns 429 (Too Many Requests) when limit is exceeded
+ * Filter to limit the requests to the API
+ * Each client (API key, or IP address) is first rate limited by its own weighted token bucket,
+ * then a Semaphore caps the number of concurrent requests of the whole server.
+ * Returns 429 (Too Many Requests) when a limit is exceeded, and 503 for new solves and generations
+ * while the server drains before shutdown.
+ * The time budget of the client (X-Request-Timeout-Ms header) starts on arrival; a request whose budget is
+ * too small to start a search is rejected with 504 (Gateway Timeout).
  */
 public class RequestLimitFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestLimitFilter.class);
     
+    /** Header identifying the client; only known keys are trusted, the remote address is used otherwise */
+    public static final String API_KEY_HEADER = "X-API-Key";
+    
+    /** Probes of the load balancer, neither limited nor measured */
+    public static final String HEALTH_PATH = "/api/v1/health/";
+    
     private final Semaphore semaphore;
     private final int maxConcurrentRequests;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final boolean trustForwardedFor;
+    private final String peerSecret;
+    private volatile boolean draining;
+    private Set<String> apiKeys = Collections.emptySet();
+    private boolean deadlineEnabled = true;
+    private long deadlineMinRemainingMs = 100;
+    private long deadlineMaxTimeoutMs = 3600000;
 
     public RequestLimitFilter(int maxConcurrentRequests) {
+        this(maxConcurrentRequests, null, false, null);
+    }
+
+    /**
+     * @param maxConcurrentRequests maximum number of concurrent requests of the server
+     * @param rateLimiter per-client rate limiter, or null to disable it
+     * @param trustForwardedFor identify clients by the first X-Forwarded-For address (behind a proxy)
+     * @param peerSecret secret of the requests forwarded by cluster peers, which are not rate limited
+     *                   again (null or empty to rate limit them as any client)
+     */
+    public RequestLimitFilter(int maxConcurrentRequests, TokenBucketRateLimiter rateLimiter, boolean trustForwardedFor,
+                              String peerSecret) {
         this.maxConcurrentRequests = maxConcurrentRequests;
         this.semaphore = new Semaphore(maxConcurrentRequests, true);
-        logger.info("RequestLimitFilter initialized with max concurrent requests: {}", maxConcurrentRequests);
+        this.rateLimiter = rateLimiter;
+        this.trustForwardedFor = trustForwardedFor;
+        this.peerSecret = peerSecret;
+        logger.info("RequestLimitFilter initialized with max concurrent requests: {}, per-client rate limiting: {}",
+            maxConcurrentRequests, rateLimiter != null);
     }
 
     @Override
@@ -48,6 +89,71 @@ public class RequestLimitFilter implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         
+        if (((HttpServletRequest) request).getRequestURI().startsWith(HEALTH_PATH)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        RequestDeadline deadline = null;
+        if (deadlineEnabled) {
+            try {
+                deadline = RequestDeadline.parse(((HttpServletRequest) request).getHeader(RequestDeadline.HEADER),
+                    deadlineMinRemainingMs, deadlineMaxTimeoutMs);
+            } catch (IllegalArgumentException e) {
+                HttpServletResponse httpResponse = (HttpServletResponse) response;
+                httpResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+                httpResponse.setContentType("application/json");
+                httpResponse.getWriter().write(
+                    String.format("{\"error\":\"Invalid deadline\",\"message\":\"%s\"}", e.getMessage().replace("\"", "'"))
+                );
+                return;
+            }
+        }
+        
+        if (deadline != null && !deadline.canStart() && isNewWork((HttpServletRequest) request)) {
+            logger.debug("Request rejected: time budget of {} ms below the minimum of {} ms",
+                deadline.remainingMillis(), deadlineMinRemainingMs);
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write(
+                String.format("{\"error\":\"Deadline exceeded\",\"message\":\"The time budget of the request is below the minimum of %d ms needed to start a search.\"}",
+                    deadlineMinRemainingMs)
+            );
+            return;
+        }
+        
+        if (draining && isNewWork((HttpServletRequest) request)) {
+            logger.debug("Request rejected: server is shutting down");
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            httpResponse.setHeader("Retry-After", "1");
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write(
+                "{\"error\":\"Shutting down\",\"message\":\"This server is shutting down and no longer accepts new tasks. Please retry on another instance.\"}"
+            );
+            return;
+        }
+        
+        if (rateLimiter != null && !isFromPeer((HttpServletRequest) request)) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            String requestClass = TokenBucketRateLimiter.classify(httpRequest.getRequestURI());
+            long retryAfterNanos = rateLimiter.tryAcquire(clientKey(httpRequest), requestClass);
+            if (retryAfterNanos > 0) {
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+                logger.debug("Request rejected: rate limit of client {} exceeded", clientKey(httpRequest));
+                HttpServletResponse httpResponse = (HttpServletResponse) response;
+                httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                httpResponse.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+                httpResponse.setContentType("application/json");
+                httpResponse.getWriter().write(
+                    String.format("{\"error\":\"Rate limit exceeded\",\"message\":\"Too many %s requests from this client. Please retry in %d s.\"}",
+                        requestClass, retryAfterSeconds)
+                );
+                return;
+            }
+        }
+        
         boolean permitAcquired = semaphore.tryAcquire();
         
         if (!permitAcquired) {
@@ -62,6 +168,10 @@ public class RequestLimitFilter implements Filter {
             return;
         }
 
+        if (deadline != null) {
+            request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+        }
+
         try {
             logger.debug("Request accepted. Available permits: {}", semaphore.availablePermits());
             chain.doFilter(request, response);
@@ -71,6 +181,90 @@ public class RequestLimitFilter implements Filter {
         }
     }
 
+    /**
+     * Check whether a request starts a solve or a generation; status, cancellation and metrics requests
+     * are still served while draining
+     * Reads only start work on the quick solve and generate endpoints, so that polling the result of a task
+     * (e.g. GET /api/v1/cryptagen/pipeline/{taskId}) is never refused, whatever its path.
+     */
+    private static boolean isNewWork(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if ("GET".equals(request.getMethod()) && !path.endsWith("/cryptator/solve") && !path.endsWith("/cryptagen/generate")) {
+            return false;
+        }
+        String requestClass = TokenBucketRateLimiter.classify(path);
+        return TokenBucketRateLimiter.SOLVE.equals(requestClass) || TokenBucketRateLimiter.GENERATE.equals(requestClass);
+    }
+
+    /**
+     * Stop (or resume) admitting new solves and generations
+     */
+    public void setDraining(boolean draining) {
+        this.draining = draining;
+        logger.info("RequestLimitFilter {} new tasks", draining ? "rejects" : "admits");
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Set the API keys that identify their clients; any other key is ignored, so that clients cannot
+     * escape their rate limit by sending a new key with each request
+     */
+    public void setApiKeys(Set<String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+
+    /**
+     * Configure the client deadlines
+     * @param enabled read the X-Request-Timeout-Ms header (ignored otherwise)
+     * @param minRemainingMs budget below which a new solve or generation is rejected
+     * @param maxTimeoutMs largest budget a client can give; longer ones are capped to it
+     */
+    public void setDeadline(boolean enabled, long minRemainingMs, long maxTimeoutMs) {
+        this.deadlineEnabled = enabled;
+        this.deadlineMinRemainingMs = minRemainingMs;
+        this.deadlineMaxTimeoutMs = maxTimeoutMs;
+    }
+
+    /**
+     * Check whether a request was forwarded by a cluster peer, which already rate limited its client
+     */
+    private boolean isFromPeer(HttpServletRequest request) {
+        return peerSecret != null && !peerSecret.isEmpty()
+            && peerSecret.equals(request.getHeader(ClusterRouter.FORWARDED_HEADER));
+    }
+
+    /**
+     * Charge the client of a request for the work found in its body, beyond the weight spent by the filter
+     * @param units number of additional requests of the class the work is worth
+     * @return 0 if accepted, otherwise the number of nanoseconds to wait before retrying
+     */
+    public long chargeExtra(HttpServletRequest request, String requestClass, int units) {
+        if (rateLimiter == null || units <= 0 || isFromPeer(request)) {
+            return 0;
+        }
+        return rateLimiter.tryAcquire(clientKey(request), requestClass, units);
+    }
+
+    /**
+     * Identify the client of a request
+     */
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isEmpty()) {
+                return "ip:" + forwardedFor.split(",")[0].trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
     @Override
     public void destroy() {
         // Cleanup if needed
@@ -91,4 +285,12 @@ public class RequestLimitFilter implements Filter {
     public int getMaxConcurrentRequests() {
         return maxConcurrentRequests;
     }
+
+    /**
+     * Get the per-client rate limiter
+     * @return the rate limiter, or null if disabled
+     */
+    public TokenBucketRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets with endpoint weights
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA), so that
+ * acquiring tokens is one lock-free compare-and-set. Counters are striped LongAdders.
+ * The number of buckets is bounded: idle buckets are swept at most once per second once the bound is
+ * reached, and new clients that still do not fit share a single overflow bucket.
+ */
+public class TokenBucketRateLimiter {
+
+    /** Request classes, from the most to the least expensive */
+    public static final String GENERATE = "generate";
+    public static final String SOLVE = "solve";
+    public static final String STATUS = "status";
+    public static final String DEFAULT = "default";
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Double> weights;
+    private final Map<String, LongAdder> accepted = new LinkedHashMap<>();
+    private final Map<String, LongAdder> rejected = new LinkedHashMap<>();
+    private final double rate;
+    private final double burst;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxClients;
+    private final AtomicLong overflow = new AtomicLong();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * @param rate sustained number of weight units per second for each client
+     * @param burst number of weight units a client may spend at once
+     * @param weights weight of each request class
+     * @param maxClients maximum number of tracked clients
+     */
+    public TokenBucketRateLimiter(double rate, double burst, Map<String, Double> weights, int maxClients) {
+        this.rate = rate;
+        this.burst = burst;
+        this.weights = weights;
+        this.maxClients = maxClients;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstToleranceNanos = (long) (emissionIntervalNanos * burst);
+        for (String requestClass : new String[] {GENERATE, SOLVE, STATUS, DEFAULT}) {
+            accepted.put(requestClass, new LongAdder());
+            rejected.put(requestClass, new LongAdder());
+        }
+    }
+
+    /**
+     * Classify a request path
+     */
+    public static String classify(String path) {
+        if (path.contains("/cryptagen/pipeline/")) {
+            // Polling the status of a pipeline
+            return STATUS;
+        }
+        if (path.contains("/cryptagen/")) {
+            return GENERATE;
+        }
+        if (path.contains("/cryptator/solve") || path.contains("/cryptator/uniqueness")
+                || path.contains("/cryptator/count") || path.contains("/cryptator/sweep")
+                || (path.contains("/tasks/") && path.endsWith("/resume"))) {
+            return SOLVE;
+        }
+        if (path.contains("/tasks/")) {
+            return STATUS;
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Try to spend the weight of a request class from the client bucket
+     * @return 0 if the request is accepted, otherwise the number of nanoseconds to wait before retrying
+     */
+    public long tryAcquire(String clientKey, String requestClass) {
+        return tryAcquire(clientKey, requestClass, 1);
+    }
+
+    /**
+     * Try to spend the weight of several requests of a class at once, e.g. the bases of a sweep
+     * The cost is capped at the burst, so that a request worth more than the burst is accepted once the
+     * bucket is full, and then empties it.
+     * @return 0 if the requests are accepted, otherwise the number of nanoseconds to wait before retrying
+     */
+    public long tryAcquire(String clientKey, String requestClass, int units) {
+        long now = System.nanoTime();
+        long cost = Math.min(burstToleranceNanos,
+            (long) (emissionIntervalNanos * weights.getOrDefault(requestClass, 1.0) * units));
+        AtomicLong bucket = bucketOf(clientKey, now);
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + cost;
+            long excess = newTat - now - burstToleranceNanos;
+            if (excess > 0) {
+                rejected.get(requestClass).increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                accepted.get(requestClass).increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Get the bucket of a client, creating it if there is room
+     */
+    private AtomicLong bucketOf(String clientKey, long now) {
+        AtomicLong bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            evictIdleBuckets(now);
+            if (buckets.size() >= maxClients) {
+                overflowed.increment();
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(clientKey, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Remove the buckets that are full again (they are equivalent to fresh ones), at most once per second
+     */
+    private void evictIdleBuckets(long now) {
+        long next = nextSweep.get();
+        if (now - next < 0 || !nextSweep.compareAndSet(next, now + TimeUnit.SECONDS.toNanos(1))) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    /**
+     * Get the limiter state and counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ratePerSecond", rate);
+        stats.put("burst", burst);
+        stats.put("weights", weights);
+        stats.put("trackedClients", buckets.size());
+        stats.put("maxClients", maxClients);
+        stats.put("overflowRequests", overflowed.sum());
+        Map<String, Long> acceptedCounts = new LinkedHashMap<>();
+        accepted.forEach((k, v) -> acceptedCounts.put(k, v.sum()));
+        Map<String, Long> rejectedCounts = new LinkedHashMap<>();
+        rejected.forEach((k, v) -> rejectedCounts.put(k, v.sum()));
+        stats.put("accepted", acceptedCounts);
+        stats.put("rejected", rejectedCounts);
+        return stats;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.specs.ICryptaNode;
+import cryptator.specs.ICryptaSolution;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Manual assignments of symbols to digits (the assignments of a solve request)
+ * Hints are validated against the parsed cryptarithm, given to the infeasibility pre-check, then enforced on
+ * the solutions: the solver cannot fix digits before its search, so the solutions disagreeing with them are skipped.
+ */
+public final class AssignmentHints {
+
+    /** No hint */
+    public static final AssignmentHints NONE = new AssignmentHints(Collections.emptyMap());
+
+    private final Map<Character, Integer> digits;
+    private final char[] symbols;
+    private final int[] values;
+
+    private AssignmentHints(Map<Character, Integer> digits) {
+        this.digits = Collections.unmodifiableMap(digits);
+        this.symbols = new char[digits.size()];
+        this.values = new int[digits.size()];
+        int i = 0;
+        for (Map.Entry<Character, Integer> entry : digits.entrySet()) {
+            symbols[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Validate the assignments of a request against the parsed cryptarithm
+     * @throws InvalidHintException if an assignment is malformed or conflicts with the puzzle or another assignment
+     */
+    public static AssignmentHints of(Map<String, Integer> assignments, ICryptaNode node,
+                                     int base, boolean allowLeadingZeros) {
+        if (assignments == null || assignments.isEmpty()) {
+            return NONE;
+        }
+        Set<Character> puzzleSymbols = new HashSet<>();
+        Set<Character> leadingSymbols = new HashSet<>();
+        List<char[]> words = InfeasibilityAnalyzer.words(node);
+        for (char[] word : words) {
+            for (char c : word) {
+                puzzleSymbols.add(c);
+            }
+            if (word.length > 1) {
+                leadingSymbols.add(word[0]);
+            }
+        }
+
+        Map<Character, Integer> digits = new LinkedHashMap<>();
+        Map<Integer, Character> symbolOfDigit = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : assignments.entrySet()) {
+            String symbol = entry.getKey();
+            Integer digit = entry.getValue();
+            if (symbol == null || symbol.length() != 1) {
+                throw new InvalidHintException("'" + symbol + "' is not a single symbol");
+            }
+            char c = symbol.charAt(0);
+            if (!puzzleSymbols.contains(c)) {
+                throw new InvalidHintException("'" + c + "' does not appear in the cryptarithm");
+            }
+            if (digit == null || digit < 0 || digit >= base) {
+                throw new InvalidHintException("'" + c + "' = " + digit + " is not a digit in base " + base);
+            }
+            if (digit == 0 && !allowLeadingZeros && leadingSymbols.contains(c)) {
+                throw new InvalidHintException("'" + c + "' = 0 is a leading zero");
+            }
+            Character other = symbolOfDigit.put(digit, c);
+            if (other != null) {
+                throw new InvalidHintException("'" + other + "' and '" + c + "' are both assigned to " + digit);
+            }
+            digits.put(c, digit);
+        }
+        return new AssignmentHints(digits);
+    }
+
+    public boolean isEmpty() {
+        return symbols.length == 0;
+    }
+
+    /**
+     * Get the digit assigned to a symbol
+     * @return the digit, or null if the symbol is free
+     */
+    public Integer digitOf(char symbol) {
+        return digits.get(symbol);
+    }
+
+    /**
+     * Check that a solution agrees with every hint
+     */
+    public boolean matches(ICryptaSolution solution) {
+        for (int i = 0; i < symbols.length; i++) {
+            if (solution.getDigit(symbols[i], -1) != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return digits.toString();
+    }
+
+    /**
+     * Thrown when the assignments of a request cannot hold
+     */
+    public static final class InvalidHintException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        public InvalidHintException(String message) {
+            super(message);
+        }
+    }
+}
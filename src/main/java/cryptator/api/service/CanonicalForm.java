@@ -0,0 +1,86 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.specs.ICryptaNode;
+import cryptator.tree.CryptaOperator;
+
+import java.util.Arrays;
+
+/**
+ * 64-bit fingerprint of the canonical form of a cryptarithm
+ * Chains of a commutative operator (+, *) are flattened and their operands sorted, so that
+ * a+b=c, b+a=c and (a+b)+c=d, a+(c+b)=d get the same fingerprint. The members of other operators,
+ * including both sides of an equation, keep their order. No string is built.
+ */
+public final class CanonicalForm {
+
+    private CanonicalForm() {
+    }
+
+    /**
+     * Get the fingerprint of a cryptarithm
+     */
+    public static long fingerprint(ICryptaNode node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.isLeaf()) {
+            long h = 0xcbf29ce484222325L;
+            for (char c : node.getWord()) {
+                h = (h ^ c) * 0x100000001b3L;
+            }
+            return mix(h);
+        }
+        CryptaOperator operator = node.getOperator();
+        long h = mix(operator.ordinal() + 1L);
+        if (isCommutative(operator)) {
+            long[] operands = new long[count(node, operator)];
+            collect(node, operator, operands, 0);
+            Arrays.sort(operands);
+            for (long operand : operands) {
+                h = mix(h * 31 + operand);
+            }
+            return h;
+        }
+        h = mix(h * 31 + fingerprint(node.getLeftChild()));
+        return mix(h * 31 + fingerprint(node.getRightChild()));
+    }
+
+    private static boolean isCommutative(CryptaOperator operator) {
+        return operator == CryptaOperator.ADD || operator == CryptaOperator.MUL;
+    }
+
+    /**
+     * Number of operands of a flattened chain of the operator
+     */
+    private static int count(ICryptaNode node, CryptaOperator operator) {
+        if (node.isLeaf() || node.getOperator() != operator) {
+            return 1;
+        }
+        return count(node.getLeftChild(), operator) + count(node.getRightChild(), operator);
+    }
+
+    private static int collect(ICryptaNode node, CryptaOperator operator, long[] operands, int index) {
+        if (node.isLeaf() || node.getOperator() != operator) {
+            operands[index] = fingerprint(node);
+            return index + 1;
+        }
+        return collect(node.getRightChild(), operator, operands, collect(node.getLeftChild(), operator, operands, index));
+    }
+
+    /**
+     * Finalizer of SplitMix64
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.SolveRequest;
+import cryptator.api.dto.SolveResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of a long enumeration, saved on local disk by TaskManager so that it can be resumed
+ * Only the client that started the task gets its resume token, which is required to resume it.
+ * A solve keeps the solutions found so far, which are not reported twice when the search is run again.
+ * A generation split by number of words keeps its completed partitions and their cryptarithms, so that
+ * only the remaining partitions are generated again.
+ * Other tasks interrupted by a shutdown only leave a checkpoint without request, which cannot be resumed.
+ */
+public class Checkpoint {
+
+    public static final String SOLVE = "SOLVE";
+    public static final String GENERATE = "GENERATE";
+
+    /** Header giving the resume token of a task */
+    public static final String TOKEN_HEADER = "X-Resume-Token";
+
+    private String taskId;
+    private String type;
+    private String resumeToken;
+    private SolveRequest solveRequest;
+    private GenerateRequest generateRequest;
+    private List<SolveResponse.Solution> solutions = new ArrayList<>();
+    private List<GenerateResponse.GeneratedCryptarithm> cryptarithms = new ArrayList<>();
+    /** Numbers of words of the completed partitions of a generation */
+    private List<Integer> completedPartitions = new ArrayList<>();
+    /** Why the enumeration stopped, or null while it runs */
+    private String reason;
+    /** Time limit, in seconds, that the last search of a solve ran out of, or null if it stopped otherwise */
+    private Integer timedOutAfter;
+    private long updatedAt;
+
+    public static Checkpoint solve(String taskId, SolveRequest request) {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setTaskId(taskId);
+        checkpoint.setType(SOLVE);
+        checkpoint.setResumeToken(UUID.randomUUID().toString());
+        checkpoint.setSolveRequest(request);
+        return checkpoint;
+    }
+
+    public static Checkpoint generate(String taskId, GenerateRequest request) {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setTaskId(taskId);
+        checkpoint.setType(GENERATE);
+        checkpoint.setResumeToken(UUID.randomUUID().toString());
+        checkpoint.setGenerateRequest(request);
+        return checkpoint;
+    }
+
+    /**
+     * Record of a task interrupted without progress to resume
+     */
+    public static Checkpoint interrupted(String taskId, String type, String reason) {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setTaskId(taskId);
+        checkpoint.setType(type);
+        checkpoint.setReason(reason);
+        return checkpoint;
+    }
+
+    /**
+     * Check whether the task can be resumed from this checkpoint
+     */
+    @JsonIgnore
+    public boolean isResumable() {
+        return solveRequest != null || generateRequest != null;
+    }
+
+    /**
+     * Check the token given to the client that started the task
+     */
+    public boolean acceptsResumeToken(String token) {
+        return resumeToken != null && token != null && MessageDigest.isEqual(
+                resumeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Check that a solve resumed with this time limit can get further than the search that saved the checkpoint
+     * The search runs again from the start, so after a time-out it needs a larger time limit, or none (0).
+     * @param timeLimit time limit of the resumed search, null to keep the one of the request
+     */
+    public boolean canResumeWithin(Integer timeLimit) {
+        return timedOutAfter == null || timeLimit != null && (timeLimit == 0 || timeLimit > timedOutAfter);
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    public SolveRequest getSolveRequest() {
+        return solveRequest;
+    }
+
+    public void setSolveRequest(SolveRequest solveRequest) {
+        this.solveRequest = solveRequest;
+    }
+
+    public GenerateRequest getGenerateRequest() {
+        return generateRequest;
+    }
+
+    public void setGenerateRequest(GenerateRequest generateRequest) {
+        this.generateRequest = generateRequest;
+    }
+
+    public List<SolveResponse.Solution> getSolutions() {
+        return solutions;
+    }
+
+    public void setSolutions(List<SolveResponse.Solution> solutions) {
+        this.solutions = solutions;
+    }
+
+    public List<GenerateResponse.GeneratedCryptarithm> getCryptarithms() {
+        return cryptarithms;
+    }
+
+    public void setCryptarithms(List<GenerateResponse.GeneratedCryptarithm> cryptarithms) {
+        this.cryptarithms = cryptarithms;
+    }
+
+    public List<Integer> getCompletedPartitions() {
+        return completedPartitions;
+    }
+
+    public void setCompletedPartitions(List<Integer> completedPartitions) {
+        this.completedPartitions = completedPartitions;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Integer getTimedOutAfter() {
+        return timedOutAfter;
+    }
+
+    public void setTimedOutAfter(Integer timedOutAfter) {
+        this.timedOutAfter = timedOutAfter;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Owner routing of requests between the API nodes of a cluster
+ * Request keys are placed on a consistent hash ring of the nodes listed in api.cluster.nodes, so that each
+ * puzzle is computed by a single node; the other nodes forward the request to it. With no nodes configured,
+ * every request is computed locally. Routing requires the shared secret (api.cluster.secret): the owner
+ * trusts the requests carrying it, which the forwarding node has already rate limited.
+ */
+@Service
+public class ClusterRouter {
+
+    /** Header marking a request forwarded by a peer; its value is the cluster secret */
+    public static final String FORWARDED_HEADER = "X-Cryptator-Forwarded";
+
+    @Value("${api.cluster.nodes:}")
+    private String nodesProperty;
+
+    @Value("${api.cluster.self:}")
+    private String self;
+
+    @Value("${api.cluster.virtual-nodes:64}")
+    private int virtualNodes;
+
+    @Value("${api.cluster.secret:}")
+    private String secret;
+
+    @Value("${api.cluster.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${api.cluster.read-timeout-ms:300000}")
+    private int readTimeoutMs;
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private List<String> nodes = Collections.emptyList();
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() {
+        List<String> configured = new ArrayList<>();
+        for (String node : nodesProperty.split(",")) {
+            if (!node.trim().isEmpty()) {
+                configured.add(normalize(node));
+            }
+        }
+        self = normalize(self);
+        if (!configured.isEmpty() && !configured.contains(self)) {
+            System.out.println("Warning: api.cluster.self (" + self + ") is not in api.cluster.nodes; cluster routing disabled");
+            configured.clear();
+        }
+        if (!configured.isEmpty() && secret.isEmpty()) {
+            // Peers trust each other's forwarded requests, which they do not rate limit again
+            System.out.println("Warning: api.cluster.secret is not set; cluster routing disabled");
+            configured.clear();
+        }
+        nodes = Collections.unmodifiableList(configured);
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        restTemplate = new RestTemplate(requestFactory);
+        if (!nodes.isEmpty()) {
+            System.out.println("Cluster routing enabled: " + nodes.size() + " nodes, self " + self);
+        }
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * Position of a string on the ring: first 8 bytes of its MD5 digest
+     */
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the node owning a request key
+     */
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return self;
+        }
+        SortedMap<Long, String> tail = ring.tailMap(hash(key));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    /**
+     * Get the node a request must be forwarded to
+     * @return the owner node, or null if the request is computed locally
+     */
+    public String remoteOwnerOf(String key) {
+        if (ring.isEmpty() || isForwardedRequest()) {
+            return null;
+        }
+        String owner = ownerOf(key);
+        return owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Check whether the current HTTP request was forwarded by a peer (such requests are never forwarded again)
+     */
+    public boolean isForwardedRequest() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return isAuthorizedPeer(attributes.getRequest().getHeader(FORWARDED_HEADER));
+    }
+
+    /**
+     * Forward a request to its owner node
+     * @param path API path of the request, e.g. /api/v1/cryptator/solve
+     * @return the response of the owner, or null if the owner cannot be reached
+     */
+    public <T> T forward(String owner, String path, Object body, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(FORWARDED_HEADER, secret);
+        // The owner works within what remains of the budget of the client
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            headers.set(RequestDeadline.HEADER, String.valueOf(Math.max(1, deadline.remainingMillis())));
+        }
+        try {
+            return restTemplate.postForObject(owner + path, new HttpEntity<>(body, headers), responseType);
+        } catch (RestClientException e) {
+            System.out.println("Forward to " + owner + path + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cancel a task forwarded to its owner node
+     */
+    public void cancelRemote(String owner, String taskId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_HEADER, secret);
+        try {
+            restTemplate.postForObject(owner + "/api/v1/tasks/" + taskId + "/cancel",
+                    new HttpEntity<>(headers), Map.class);
+        } catch (RestClientException e) {
+            System.out.println("Cannot cancel task " + taskId + " on " + owner + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check the forwarded header of a request to an internal endpoint (never authorized without a secret)
+     */
+    public boolean isAuthorizedPeer(String forwardedHeader) {
+        return !secret.isEmpty() && secret.equals(forwardedHeader);
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+}
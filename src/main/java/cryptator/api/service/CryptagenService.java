@@ -8,7 +8,9 @@
  */
 package cryptator.api.service;
 
+import cryptator.api.dto.GenerateRequest;
 import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.SolveRequest;
 import cryptator.cmd.CryptaBiConsumer;
 import cryptator.cmd.WordArray;
 import cryptator.config.CryptagenConfig;
@@ -17,10 +19,16 @@ import cryptator.solver.CryptaModelException;
 import cryptator.specs.ICryptaNode;
 import cryptator.specs.ICryptaSolution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -32,6 +40,24 @@ public class CryptagenService {
     @Autowired
     private TaskManager taskManager;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private WordArrayCache wordArrayCache;
+
+    @Autowired
+    private CryptarithmRanker cryptarithmRanker;
+
+    @Value("${api.generate.deduplicate:true}")
+    private boolean deduplicate;
+
     public GenerateResponse generateCryptarithms(String taskIdFromClient, List<String> words, String operatorSymbol,
                                                  int solutionLimit, int timeLimit, boolean shuffle,
                                                  String countryCode, String langCode,
@@ -39,9 +65,73 @@ public class CryptagenService {
                                                  Boolean dryRun, String rightMemberType,
                                                  Integer minWords, Integer maxWords,
                                                  Boolean lightPropagation, Integer threads,
-                                                 Integer crossGridSize, Boolean allowLeadingZeros) {
-        
-        GenerateResponse response = new GenerateResponse();
+                                                 Integer crossGridSize, Boolean allowLeadingZeros,
+                                                 Integer topK, Map<String, Double> scorers) {
+        return generateCryptarithms(taskIdFromClient, words, operatorSymbol, solutionLimit, timeLimit, shuffle,
+                countryCode, langCode, lowerBound, upperBound, dryRun, rightMemberType, minWords, maxWords,
+                lightPropagation, threads, crossGridSize, allowLeadingZeros, topK, scorers, false);
+    }
+
+    /**
+     * Generate cryptarithms, saving the completed numbers of words in a checkpoint if requested
+     */
+    public GenerateResponse generateCryptarithms(String taskIdFromClient, List<String> words, String operatorSymbol,
+                                                 int solutionLimit, int timeLimit, boolean shuffle,
+                                                 String countryCode, String langCode,
+                                                 Integer lowerBound, Integer upperBound,
+                                                 Boolean dryRun, String rightMemberType,
+                                                 Integer minWords, Integer maxWords,
+                                                 Boolean lightPropagation, Integer threads,
+                                                 Integer crossGridSize, Boolean allowLeadingZeros,
+                                                 Integer topK, Map<String, Double> scorers, boolean checkpoint) {
+        return generateCryptarithms(true, taskIdFromClient, words, operatorSymbol, solutionLimit, timeLimit, shuffle,
+                countryCode, langCode, lowerBound, upperBound, dryRun, rightMemberType, minWords, maxWords,
+                lightPropagation, threads, crossGridSize, allowLeadingZeros, topK, scorers, checkpoint, null);
+    }
+
+    /**
+     * Resume a generation split by number of words from its checkpoint, under the same task id:
+     * only the partitions not completed yet are generated
+     */
+    public GenerateResponse resumeGenerate(Checkpoint checkpoint) {
+        GenerateRequest request = checkpoint.getGenerateRequest();
+        return generateCryptarithms(false, checkpoint.getTaskId(), request.getWords(), request.getOperatorSymbol(),
+                request.getSolutionLimit(), request.getTimeLimit(), request.getShuffle(),
+                request.getCountryCode(), request.getLangCode(),
+                request.getLowerBound(), request.getUpperBound(),
+                request.getDryRun(), request.getRightMemberType(),
+                request.getMinWords(), request.getMaxWords(),
+                request.getLightPropagation(), request.getThreads(),
+                request.getCrossGridSize(), request.getAllowLeadingZeros(),
+                request.getTopK(), request.getScorers(), true, checkpoint);
+    }
+
+    /**
+     * Generate one partition of a distributed generation on this node, whatever the owner of its key
+     */
+    public GenerateResponse generatePartition(GenerateRequest request) {
+        return generateCryptarithms(false, request.getTaskId(), request.getWords(), request.getOperatorSymbol(),
+                request.getSolutionLimit(), request.getTimeLimit(), request.getShuffle(),
+                request.getCountryCode(), request.getLangCode(),
+                request.getLowerBound(), request.getUpperBound(),
+                request.getDryRun(), request.getRightMemberType(),
+                request.getMinWords(), request.getMaxWords(),
+                request.getLightPropagation(), request.getThreads(),
+                request.getCrossGridSize(), request.getAllowLeadingZeros(),
+                request.getTopK(), request.getScorers(), false, null);
+    }
+
+    private GenerateResponse generateCryptarithms(boolean route, String taskIdFromClient, List<String> words,
+                                                  String operatorSymbol,
+                                                  int solutionLimit, int timeLimit, boolean shuffle,
+                                                  String countryCode, String langCode,
+                                                  Integer lowerBound, Integer upperBound,
+                                                  Boolean dryRun, String rightMemberType,
+                                                  Integer minWords, Integer maxWords,
+                                                  Boolean lightPropagation, Integer threads,
+                                                  Integer crossGridSize, Boolean allowLeadingZeros,
+                                                  Integer topK, Map<String, Double> scorers,
+                                                  boolean checkpointed, Checkpoint resumed) {
         
         // Use client-provided taskId if available, otherwise generate one
         String taskId = (taskIdFromClient != null && !taskIdFromClient.trim().isEmpty()) 
@@ -53,6 +143,170 @@ public class CryptagenService {
             taskManager.registerTask("GENERATE", taskId);
         }
         
+        GenerateResponse response = new GenerateResponse();
+        response.setTaskId(taskId);
+
+        // The generation is cancelled once the client stops waiting
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.cancelAtDeadline(taskManager.getTaskInfo(taskId));
+        }
+
+        GenerateRequest request = new GenerateRequest();
+        request.setTaskId(taskId);
+        request.setWords(words);
+        request.setOperatorSymbol(operatorSymbol);
+        request.setSolutionLimit(solutionLimit);
+        request.setTimeLimit(timeLimit);
+        request.setShuffle(shuffle);
+        request.setCountryCode(countryCode);
+        request.setLangCode(langCode);
+        request.setLowerBound(lowerBound);
+        request.setUpperBound(upperBound);
+        request.setDryRun(dryRun);
+        request.setRightMemberType(rightMemberType);
+        request.setMinWords(minWords);
+        request.setMaxWords(maxWords);
+        request.setLightPropagation(lightPropagation);
+        request.setThreads(threads);
+        request.setCrossGridSize(crossGridSize);
+        request.setAllowLeadingZeros(allowLeadingZeros);
+        request.setTopK(topK);
+        request.setScorers(scorers);
+        request.setCheckpoint(checkpointed);
+        // Generations over several numbers of words save their completed partitions on request, to be resumed
+        Checkpoint checkpoint = resumed != null ? resumed
+            : checkpointed && minWords != null && maxWords != null && maxWords > minWords
+                && !Boolean.TRUE.equals(dryRun) && taskManager.isCheckpointEnabled()
+                ? Checkpoint.generate(taskId, request) : null;
+        
+        try {
+            String key = RequestKey.generate(words, operatorSymbol, countryCode, langCode,
+                    lowerBound, upperBound, dryRun, rightMemberType, minWords, maxWords,
+                    lightPropagation, threads, crossGridSize, allowLeadingZeros, topK, scorers);
+            GenerateResponse cached = resultCache.get(key, GenerateResponse.class);
+            if (cached != null && resumed == null) {
+                GenerateResponse hit = copyFor(cached, taskId);
+                hit.setCached(true);
+                return completed(checkpoint, hit);
+            }
+
+            // In a cluster, each generation is computed by its owner node, unless its checkpoint is kept on this one
+            String owner = route && checkpoint == null ? clusterRouter.remoteOwnerOf(key) : null;
+            if (owner != null) {
+                taskManager.getTaskInfo(taskId).addCancelListener(() -> clusterRouter.cancelRemote(owner, taskId));
+                GenerateResponse remote = clusterRouter.forward(owner, "/api/v1/cryptagen/generate", request, GenerateResponse.class);
+                if (remote != null) {
+                    return copyFor(cacheResult(key, remote), taskId);
+                }
+            }
+
+            // The generation runs on the bounded solver pool, shared by concurrent identical requests; a generation
+            // saving or resuming a checkpoint is not shared, since its checkpoint belongs to its own task
+            String flightKey = checkpoint != null ? key + "|checkpoint=" + taskId : key;
+            GenerateResponse shared = requestCoalescer.<GenerateResponse>execute(flightKey, "GENERATE", taskId,
+                    sharedTaskId -> cacheResult(key, generate(sharedTaskId, words, operatorSymbol, countryCode, langCode,
+                            lowerBound, upperBound, dryRun, rightMemberType, minWords, maxWords,
+                            lightPropagation, threads, crossGridSize, allowLeadingZeros, topK, scorers, null,
+                            checkpoint)))
+                .join();
+            return completed(checkpoint, copyFor(shared, taskId));
+        } catch (CancellationException e) {
+            response.setSuccess(false);
+            response.setError(deadline != null && deadline.isExpired()
+                ? RequestDeadline.exceededMessage() : "Task cancelled by user");
+            response.setCryptarithms(new ArrayList<>());
+        } catch (RejectedExecutionException e) {
+            response.setSuccess(false);
+            response.setError("Server busy: all solver threads are in use. Please try again later.");
+        } catch (CompletionException e) {
+            response.setSuccess(false);
+            response.setError(e.getCause() instanceof RejectedExecutionException
+                ? "Server busy: all solver threads are in use. Please try again later."
+                : "Error: " + e.getCause().getMessage());
+        } finally {
+            // Unregister task
+            taskManager.unregisterTask(taskId);
+        }
+        if (checkpoint != null) {
+            response.setResumeToken(checkpoint.getResumeToken());
+        }
+        return response;
+    }
+
+    /**
+     * Delete the checkpoint of a generation once it has completed, or give its resume token to the client
+     */
+    private GenerateResponse completed(Checkpoint checkpoint, GenerateResponse response) {
+        if (checkpoint != null && response.getError() == null) {
+            taskManager.deleteCheckpoint(checkpoint.getTaskId());
+        } else if (checkpoint != null) {
+            response.setResumeToken(checkpoint.getResumeToken());
+        }
+        return response;
+    }
+
+    /**
+     * Copy a shared response for one of its subscribers
+     */
+    private static GenerateResponse copyFor(GenerateResponse shared, String taskId) {
+        GenerateResponse response = new GenerateResponse();
+        response.setSuccess(shared.isSuccess());
+        response.setCryptarithms(shared.getCryptarithms());
+        response.setError(shared.getError());
+        response.setExecutionTimeMs(shared.getExecutionTimeMs());
+        response.setTaskId(taskId);
+        response.setCached(shared.isCached());
+        response.setDuplicateWords(shared.getDuplicateWords());
+        response.setPrunedWords(shared.getPrunedWords());
+        response.setPrunedCombinations(shared.getPrunedCombinations());
+        response.setDuplicatesDropped(shared.getDuplicatesDropped());
+        response.setRankedCandidates(shared.getRankedCandidates());
+        return response;
+    }
+
+    /**
+     * Store a completed generation in the result cache
+     */
+    private GenerateResponse cacheResult(String key, GenerateResponse response) {
+        if (response.getError() == null) {
+            resultCache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Generate cryptarithms in the calling thread, pushing each one to the listener as soon as it is found
+     * instead of accumulating them in the response. The caller is expected to run on a bounded scheduler.
+     */
+    public GenerateResponse generateCryptarithmsStreaming(String taskId, GenerateRequest request,
+                                                          Consumer<GenerateResponse.GeneratedCryptarithm> listener) {
+        taskManager.registerTask("GENERATE", taskId);
+        try {
+            return generate(taskId, request.getWords(), request.getOperatorSymbol(),
+                    request.getCountryCode(), request.getLangCode(),
+                    request.getLowerBound(), request.getUpperBound(),
+                    request.getDryRun(), request.getRightMemberType(),
+                    request.getMinWords(), request.getMaxWords(),
+                    request.getLightPropagation(), request.getThreads(),
+                    request.getCrossGridSize(), request.getAllowLeadingZeros(), null, null, listener, null);
+        } finally {
+            taskManager.unregisterTask(taskId);
+        }
+    }
+
+    private GenerateResponse generate(String taskId, List<String> words, String operatorSymbol,
+                                      String countryCode, String langCode,
+                                      Integer lowerBound, Integer upperBound,
+                                      Boolean dryRun, String rightMemberType,
+                                      Integer minWords, Integer maxWords,
+                                      Boolean lightPropagation, Integer threads,
+                                      Integer crossGridSize, Boolean allowLeadingZeros,
+                                      Integer topK, Map<String, Double> scorers,
+                                      Consumer<GenerateResponse.GeneratedCryptarithm> listener,
+                                      Checkpoint checkpoint) {
+        
+        GenerateResponse response = new GenerateResponse();
         response.setTaskId(taskId);
         
         long startTime = System.currentTimeMillis();
@@ -61,9 +315,22 @@ public class CryptagenService {
             // Build word array
             WordArray wordArray;
             if (lowerBound != null && upperBound != null && countryCode != null && langCode != null) {
-                wordArray = new WordArray(countryCode, langCode, lowerBound, upperBound);
+                wordArray = wordArrayCache.get(countryCode, langCode, lowerBound, upperBound);
             } else if (words != null && !words.isEmpty()) {
-                wordArray = new WordArray(words);
+                WordIndex index = WordIndex.of(words, isAddition(operatorSymbol), Boolean.TRUE.equals(allowLeadingZeros),
+                        "FREE".equalsIgnoreCase(rightMemberType), "FIXED".equalsIgnoreCase(rightMemberType),
+                        minWords, maxWords);
+                response.setDuplicateWords(index.getDuplicates());
+                response.setPrunedWords(index.getPrunedWords());
+                response.setPrunedCombinations(index.getPrunedCombinations());
+                if (index.getWords().size() < 2) {
+                    // No cryptarithm can be built from the remaining words
+                    response.setSuccess(true);
+                    response.setCryptarithms(new ArrayList<>());
+                    response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+                    return response;
+                }
+                wordArray = new WordArray(index.getWords());
             } else {
                 response.setSuccess(false);
                 response.setError("Either provide words list OR countryCode+langCode+lowerBound+upperBound");
@@ -150,10 +417,17 @@ public class CryptagenService {
             // Create generator
             Logger logger = Logger.getLogger("CryptagenService");
             logger.setLevel(java.util.logging.Level.ALL);
-            CryptaListGenerator generator = new CryptaListGenerator(wordArray, config, logger);
             
             // Capture generated cryptarithms
             CryptarithmCapturingConsumer consumer = new CryptarithmCapturingConsumer(taskId, taskManager);
+            consumer.setListener(listener);
+            consumer.setDeduplicate(deduplicate);
+            if (topK != null && listener == null) {
+                consumer.setRanking(cryptarithmRanker.newRanking(topK, scorers, solverSettings(config, allowLeadingZeros)));
+            }
+            if (checkpoint != null) {
+                consumer.restore(checkpoint.getCryptarithms());
+            }
             
             System.out.println("DEBUG: Starting generation");
             if (words != null) {
@@ -164,7 +438,9 @@ public class CryptagenService {
             System.out.println("DEBUG: GenerateType=" + config.getGenerateType());
             System.out.println("DEBUG: MinWords=" + config.getMinWords() + ", MaxWords=" + config.getMaxWords());
             
-            long count = generator.generate(consumer);
+            long count = checkpoint != null
+                ? generatePartitions(taskId, wordArray, config, logger, consumer, minWords, maxWords, checkpoint)
+                : new CryptaListGenerator(wordArray, config, logger).generate(consumer);
             
             System.out.println("DEBUG: Generator returned count=" + count);
             System.out.println("DEBUG: Consumer captured " + consumer.getCryptarithms().size() + " cryptarithms");
@@ -177,6 +453,12 @@ public class CryptagenService {
             } else {
                 response.setSuccess(true);
                 response.setCryptarithms(consumer.getCryptarithms());
+                if (consumer.getRanking() != null) {
+                    response.setRankedCandidates(consumer.getRanking().getCandidates());
+                }
+                if (deduplicate) {
+                    response.setDuplicatesDropped(consumer.getDuplicates());
+                }
             }
             
         } catch (CryptaModelException e) {
@@ -199,21 +481,86 @@ public class CryptagenService {
         
         long endTime = System.currentTimeMillis();
         response.setExecutionTimeMs(endTime - startTime);
-        
-        // Unregister task
-        taskManager.unregisterTask(taskId);
+        if (checkpoint != null && response.getError() != null) {
+            checkpoint.setReason(response.getError());
+            taskManager.saveCheckpoint(checkpoint);
+        }
         
         return response;
     }
+
+    /**
+     * Generate one number of words after the other, skipping the partitions completed before the checkpoint,
+     * and save the checkpoint after each partition
+     */
+    private long generatePartitions(String taskId, WordArray wordArray, CryptagenConfig config, Logger logger,
+                                    CryptarithmCapturingConsumer consumer, int minWords, int maxWords,
+                                    Checkpoint checkpoint) throws CryptaModelException, InterruptedException {
+        long count = 0;
+        for (int n = minWords; n <= maxWords; n++) {
+            if (checkpoint.getCompletedPartitions().contains(n)) {
+                continue;
+            }
+            if (taskManager.isCancelled(taskId)) {
+                throw new RuntimeException("Task cancelled by user");
+            }
+            config.setMinWords(n);
+            config.setMaxWords(n);
+            count += new CryptaListGenerator(wordArray, config, logger).generate(consumer);
+            checkpoint.getCompletedPartitions().add(n);
+            checkpoint.setCryptarithms(new ArrayList<>(consumer.getCryptarithms()));
+            checkpoint.setReason(null);
+            taskManager.saveCheckpoint(checkpoint);
+        }
+        return count;
+    }
+    
+    /**
+     * Get the solver settings under which the cryptarithms of a generation hold
+     * The generator keeps the base and the evaluation scheme of its configuration at their defaults.
+     */
+    public static SolveRequest solverSettings(GenerateRequest generation) {
+        return solverSettings(new CryptagenConfig(), generation.getAllowLeadingZeros());
+    }
+
+    private static SolveRequest solverSettings(CryptagenConfig config, Boolean allowLeadingZeros) {
+        SolveRequest settings = new SolveRequest();
+        settings.setArithmeticBase(config.getArithmeticBase());
+        settings.setAllowLeadingZeros(Boolean.TRUE.equals(allowLeadingZeros));
+        settings.setHornerScheme(false);
+        return settings;
+    }
+
+    /**
+     * Check whether the operator symbol of a request generates additions (the default)
+     */
+    private static boolean isAddition(String operatorSymbol) {
+        if (operatorSymbol == null) {
+            return true;
+        }
+        switch (operatorSymbol.trim()) {
+            case "*":
+            case "MUL":
+            case "LMUL":
+            case "CROSS":
+                return false;
+            default:
+                return true;
+        }
+    }
     
     /**
      * Custom consumer to capture generated cryptarithms
      */
-    private static class CryptarithmCapturingConsumer extends CryptaBiConsumer {
+    static class CryptarithmCapturingConsumer extends CryptaBiConsumer {
         
         private final List<GenerateResponse.GeneratedCryptarithm> cryptarithms = new ArrayList<>();
         private final String taskId;
         private final TaskManager taskManager;
+        private Consumer<GenerateResponse.GeneratedCryptarithm> listener;
+        private FingerprintSet seen;
+        private long duplicates;
+        private CryptarithmRanker.Ranking ranking;
         
         public CryptarithmCapturingConsumer(String taskId, TaskManager taskManager) {
             super(Logger.getLogger("CryptarithmLogger"));
@@ -222,6 +569,31 @@ public class CryptagenService {
             this.withCryptarithmLog();
         }
         
+        /**
+         * Push cryptarithms to the listener instead of keeping them (null to keep them)
+         */
+        public void setListener(Consumer<GenerateResponse.GeneratedCryptarithm> listener) {
+            this.listener = listener;
+        }
+        
+        /**
+         * Drop the cryptarithms equivalent to an earlier one up to the order of the operands of + and *
+         */
+        public void setDeduplicate(boolean deduplicate) {
+            this.seen = deduplicate ? new FingerprintSet() : null;
+        }
+        
+        /**
+         * Keep only the best cryptarithms of a ranking instead of all of them (null to keep them all)
+         */
+        public void setRanking(CryptarithmRanker.Ranking ranking) {
+            this.ranking = ranking;
+        }
+        
+        public CryptarithmRanker.Ranking getRanking() {
+            return ranking;
+        }
+        
         @Override
         public void accept(ICryptaNode node, ICryptaSolution solution) {
             // Check if task is cancelled before processing
@@ -229,21 +601,58 @@ public class CryptagenService {
                 // Throw exception to stop the generator immediately
                 throw new RuntimeException("Task cancelled by user");
             }
+            if (seen != null) {
+                long fingerprint = CanonicalForm.fingerprint(node);
+                synchronized (seen) {
+                    if (!seen.add(fingerprint)) {
+                        duplicates++;
+                        return;
+                    }
+                }
+            }
             
             super.accept(node, solution);
             
             String cryptarithm = cryptator.tree.TreeUtils.writeInorder(node);
             String solutionStr = solution.toString();
+            if (ranking != null) {
+                ranking.offer(node, cryptarithm, solutionStr);
+                return;
+            }
             
             GenerateResponse.GeneratedCryptarithm gen = new GenerateResponse.GeneratedCryptarithm();
             gen.setCryptarithm(cryptarithm);
             gen.setSolution(solutionStr);
             
-            cryptarithms.add(gen);
+            if (listener != null) {
+                listener.accept(gen);
+            } else {
+                cryptarithms.add(gen);
+            }
+        }
+        
+        /**
+         * Start from the cryptarithms of a checkpoint
+         */
+        public void restore(List<GenerateResponse.GeneratedCryptarithm> restored) {
+            if (ranking != null) {
+                restored.forEach(ranking::restore);
+            } else {
+                cryptarithms.addAll(restored);
+            }
         }
         
         public List<GenerateResponse.GeneratedCryptarithm> getCryptarithms() {
-            return cryptarithms;
+            return ranking != null ? ranking.getBest() : cryptarithms;
+        }
+        
+        public long getDuplicates() {
+            if (seen == null) {
+                return 0;
+            }
+            synchronized (seen) {
+                return duplicates;
+            }
         }
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.SolveRequest;
+import cryptator.specs.ICryptaNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ranking of generated cryptarithms by weighted scoring functions
+ * Each ranked generation keeps its best K candidates in a bounded min-heap, so that its memory is O(K)
+ * whatever the number of generated candidates.
+ */
+@Service
+public class CryptarithmRanker {
+
+    @Autowired
+    private List<CryptarithmScorer> scorers;
+
+    @Value("${api.ranking.max-top-k:1000}")
+    private int maxTopK;
+
+    /**
+     * Start a ranked generation
+     * @param weights weight of each scorer by name (null or empty = every scorer, of weight 1)
+     * @param settings solver settings of the generation, passed to the scorers
+     * @throws IllegalArgumentException if topK is out of range or a scorer is unknown
+     */
+    public Ranking newRanking(int topK, Map<String, Double> weights, SolveRequest settings) {
+        if (topK < 1 || topK > maxTopK) {
+            throw new IllegalArgumentException("topK must be between 1 and " + maxTopK);
+        }
+        Map<CryptarithmScorer, Double> selected = new LinkedHashMap<>();
+        if (weights == null || weights.isEmpty()) {
+            for (CryptarithmScorer scorer : scorers) {
+                selected.put(scorer, 1.0);
+            }
+        } else {
+            for (Map.Entry<String, Double> weight : weights.entrySet()) {
+                CryptarithmScorer scorer = scorers.stream()
+                    .filter(s -> s.getName().equals(weight.getKey()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown scorer: " + weight.getKey()));
+                if (weight.getValue() != null && weight.getValue() > 0) {
+                    selected.put(scorer, weight.getValue());
+                }
+            }
+        }
+        return new Ranking(topK, selected, settings);
+    }
+
+    /**
+     * Best candidates of one generation; thread-safe
+     */
+    public static final class Ranking {
+
+        private final int topK;
+        private final List<CryptarithmScorer> cheap = new ArrayList<>();
+        private final List<CryptarithmScorer> expensive = new ArrayList<>();
+        private final Map<CryptarithmScorer, Double> weights;
+        private final SolveRequest settings;
+        private final double maxExpensiveScore;
+        private final PriorityQueue<GenerateResponse.GeneratedCryptarithm> heap =
+            new PriorityQueue<>(Comparator.comparingDouble(GenerateResponse.GeneratedCryptarithm::getScore));
+        private long candidates;
+
+        Ranking(int topK, Map<CryptarithmScorer, Double> weights, SolveRequest settings) {
+            this.topK = topK;
+            this.weights = weights;
+            this.settings = settings;
+            double max = 0;
+            for (Map.Entry<CryptarithmScorer, Double> entry : weights.entrySet()) {
+                if (entry.getKey().isExpensive()) {
+                    expensive.add(entry.getKey());
+                    max += entry.getValue();
+                } else {
+                    cheap.add(entry.getKey());
+                }
+            }
+            this.maxExpensiveScore = max;
+        }
+
+        /**
+         * Score a candidate and keep it if it is among the best K so far
+         */
+        public void offer(ICryptaNode node, String cryptarithm, String solution) {
+            Map<String, Double> scores = new LinkedHashMap<>();
+            double score = 0;
+            for (CryptarithmScorer scorer : cheap) {
+                double s = scorer.score(node, cryptarithm, settings);
+                scores.put(scorer.getName(), s);
+                score += weights.get(scorer) * s;
+            }
+            synchronized (this) {
+                candidates++;
+                // Skip the expensive scorers of a candidate that cannot beat the current K-th best
+                if (heap.size() >= topK && score + maxExpensiveScore <= heap.peek().getScore()) {
+                    return;
+                }
+            }
+            for (CryptarithmScorer scorer : expensive) {
+                double s = scorer.score(node, cryptarithm, settings);
+                scores.put(scorer.getName(), s);
+                score += weights.get(scorer) * s;
+            }
+
+            synchronized (this) {
+                if (heap.size() >= topK && score <= heap.peek().getScore()) {
+                    return;
+                }
+                GenerateResponse.GeneratedCryptarithm ranked = new GenerateResponse.GeneratedCryptarithm();
+                ranked.setCryptarithm(cryptarithm);
+                ranked.setSolution(solution);
+                ranked.setScore(score);
+                ranked.setScores(scores);
+                heap.add(ranked);
+                if (heap.size() > topK) {
+                    heap.poll();
+                }
+            }
+        }
+
+        /**
+         * Keep a candidate already scored, restored from a checkpoint
+         */
+        public synchronized void restore(GenerateResponse.GeneratedCryptarithm ranked) {
+            if (ranked.getScore() == null) {
+                return;
+            }
+            heap.add(ranked);
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+
+        /**
+         * Get the best candidates, the best first
+         */
+        public synchronized List<GenerateResponse.GeneratedCryptarithm> getBest() {
+            List<GenerateResponse.GeneratedCryptarithm> best = new ArrayList<>(heap);
+            best.sort(byScoreDescending());
+            return best;
+        }
+
+        public synchronized long getCandidates() {
+            return candidates;
+        }
+    }
+
+    /**
+     * Order of ranked cryptarithms, the best first
+     */
+    public static Comparator<GenerateResponse.GeneratedCryptarithm> byScoreDescending() {
+        return Comparator.comparingDouble(GenerateResponse.GeneratedCryptarithm::getScore).reversed();
+    }
+}
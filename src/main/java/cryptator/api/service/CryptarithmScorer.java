@@ -0,0 +1,39 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.SolveRequest;
+import cryptator.specs.ICryptaNode;
+
+/**
+ * Scoring function of ranked generations
+ * Implementations are Spring beans, selected by name in the scorers of a generate request.
+ */
+public interface CryptarithmScorer {
+
+    /**
+     * Name of the scorer in generate requests
+     */
+    String getName();
+
+    /**
+     * Score a generated cryptarithm
+     * @param cryptarithm the cryptarithm written in order
+     * @param settings solver settings of the generation (base, leading zeros), not to be modified
+     * @return a score in [0, 1], higher is better
+     */
+    double score(ICryptaNode node, String cryptarithm, SolveRequest settings);
+
+    /**
+     * Expensive scorers only run for the candidates that can still enter the top K
+     */
+    default boolean isExpensive() {
+        return false;
+    }
+}
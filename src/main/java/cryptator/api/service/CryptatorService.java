@@ -8,7 +8,13 @@
  */
 package cryptator.api.service;
 
+import cryptator.api.dto.BaseSweepRequest;
+import cryptator.api.dto.BaseSweepResponse;
+import cryptator.api.dto.CountResponse;
+import cryptator.api.dto.SolveRequest;
 import cryptator.api.dto.SolveResponse;
+import cryptator.api.dto.UniquenessRequest;
+import cryptator.api.dto.UniquenessResponse;
 import cryptator.cmd.CryptaBiConsumer;
 import cryptator.config.CryptaCmdConfig;
 import cryptator.config.CryptatorConfig;
@@ -20,12 +26,28 @@ import cryptator.specs.ICryptaNode;
 import cryptator.specs.ICryptaSolution;
 import cryptator.specs.ICryptaSolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.*;
 
 import static cryptator.Cryptator.createSolver;
@@ -40,14 +62,79 @@ public class CryptatorService {
     @Autowired
     private TaskManager taskManager;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private NegativeResultCache negativeResultCache;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private SolverPool solverPool;
+
+    @Autowired
+    private InfeasibilityAnalyzer infeasibilityAnalyzer;
+
+    @Value("${api.sweep.max-parallelism:2}")
+    private int sweepParallelism;
+
+    @Value("${api.uniqueness.batch-parallelism:2}")
+    private int batchParallelism;
+
     public SolveResponse solveCryptarithm(String taskIdFromClient, String cryptarithm, String solverTypeStr, 
                                          int solutionLimit, int timeLimit,
                                          int arithmeticBase, boolean checkSolution,
                                          boolean exportGraphviz, boolean allowLeadingZeros,
                                          boolean hornerScheme, java.util.Map<String, Integer> assignments) {
-        
-        SolveResponse response = new SolveResponse();
-        response.setCryptarithm(cryptarithm);
+        return solveCryptarithm(taskIdFromClient, cryptarithm, solverTypeStr, solutionLimit, timeLimit,
+                arithmeticBase, checkSolution, exportGraphviz, allowLeadingZeros, hornerScheme, assignments,
+                false, null);
+    }
+
+    /**
+     * Solve a cryptarithm, saving the progress of an enumeration (solutionLimit=0) in a checkpoint if requested
+     */
+    public SolveResponse solveCryptarithm(String taskIdFromClient, String cryptarithm, String solverTypeStr,
+                                         int solutionLimit, int timeLimit,
+                                         int arithmeticBase, boolean checkSolution,
+                                         boolean exportGraphviz, boolean allowLeadingZeros,
+                                         boolean hornerScheme, java.util.Map<String, Integer> assignments,
+                                         boolean checkpoint) {
+        return solveCryptarithm(taskIdFromClient, cryptarithm, solverTypeStr, solutionLimit, timeLimit,
+                arithmeticBase, checkSolution, exportGraphviz, allowLeadingZeros, hornerScheme, assignments,
+                checkpoint, null);
+    }
+
+    /**
+     * Run an enumeration again under the same task id, keeping the solutions of its checkpoint
+     * The solver cannot restart from a search position, so the search starts over; the solutions of the
+     * checkpoint are not reported twice. A search that timed out only gets further with a larger time limit.
+     * @param timeLimit time limit of the new search, null to keep the one of the request
+     */
+    public SolveResponse resumeSolve(Checkpoint checkpoint, Integer timeLimit) {
+        SolveRequest request = checkpoint.getSolveRequest();
+        if (timeLimit != null) {
+            request.setTimeLimit(timeLimit);
+        }
+        checkpoint.setTimedOutAfter(null);
+        return solveCryptarithm(checkpoint.getTaskId(), request.getCryptarithm(), request.getSolverType(),
+                request.getSolutionLimit(), request.getTimeLimit(), request.getArithmeticBase(),
+                Boolean.TRUE.equals(request.getCheckSolution()), Boolean.TRUE.equals(request.getExportGraphviz()),
+                Boolean.TRUE.equals(request.getAllowLeadingZeros()), Boolean.TRUE.equals(request.getHornerScheme()),
+                request.getAssignments(), true, checkpoint);
+    }
+
+    private SolveResponse solveCryptarithm(String taskIdFromClient, String cryptarithm, String solverTypeStr,
+                                           int solutionLimit, int requestedTimeLimit,
+                                           int arithmeticBase, boolean checkSolution,
+                                           boolean exportGraphviz, boolean allowLeadingZeros,
+                                           boolean hornerScheme, java.util.Map<String, Integer> assignments,
+                                           boolean checkpointed, Checkpoint resumed) {
         
         // Use client-provided taskId if available, otherwise generate one
         String taskId = (taskIdFromClient != null && !taskIdFromClient.trim().isEmpty()) 
@@ -59,41 +146,740 @@ public class CryptatorService {
             taskManager.registerTask("SOLVE", taskId);
         }
         
+        SolveResponse response = new SolveResponse();
+        response.setCryptarithm(cryptarithm);
         response.setTaskId(taskId);
+
+        // A client deadline bounds the time limit, and the search is cancelled once the client stops waiting
+        RequestDeadline deadline = RequestDeadline.current();
+        int timeLimit = deadline != null ? deadline.timeLimit(requestedTimeLimit) : requestedTimeLimit;
+        if (deadline != null) {
+            deadline.cancelAtDeadline(taskManager.getTaskInfo(taskId));
+        }
+
+        SolveRequest request = new SolveRequest();
+        request.setTaskId(taskId);
+        request.setCryptarithm(cryptarithm);
+        request.setSolverType(solverTypeStr);
+        request.setSolutionLimit(solutionLimit);
+        request.setTimeLimit(requestedTimeLimit);
+        request.setArithmeticBase(arithmeticBase);
+        request.setCheckSolution(checkSolution);
+        request.setExportGraphviz(exportGraphviz);
+        request.setAllowLeadingZeros(allowLeadingZeros);
+        request.setHornerScheme(hornerScheme);
+        request.setAssignments(assignments);
+        request.setCheckpoint(checkpointed);
+        // Enumerations of all the solutions save their progress on request, to be resumed if they do not complete
+        Checkpoint checkpoint = resumed != null ? resumed
+            : checkpointed && solutionLimit == 0 && taskManager.isCheckpointEnabled()
+                ? Checkpoint.solve(taskId, request) : null;
         
+        try {
+            // Puzzles known to have no solution, or to time out within this budget, are not solved again
+            String puzzleKey = RequestKey.puzzle(cryptarithm, solverTypeStr, arithmeticBase,
+                    allowLeadingZeros, hornerScheme, assignments);
+            NegativeResultCache.Entry negative = negativeResultCache.lookup(puzzleKey, timeLimit);
+            // A resumed enumeration runs again with its new time limit, even if it timed out before
+            if (negative != null && resumed == null) {
+                return completed(checkpoint, negativeResponse(negative, cryptarithm, taskId), timeLimit);
+            }
+
+            String key = RequestKey.solve(cryptarithm, solverTypeStr, solutionLimit, timeLimit,
+                    arithmeticBase, checkSolution, allowLeadingZeros, hornerScheme, assignments);
+            SolveResponse cached = resultCache.get(key, SolveResponse.class);
+            if (cached != null && resumed == null) {
+                SolveResponse hit = copyFor(cached, taskId);
+                hit.setCached(true);
+                return completed(checkpoint, hit, timeLimit);
+            }
+
+            // In a cluster, each puzzle is computed by its owner node, unless its checkpoint is kept on this one
+            String owner = clusterRouter.remoteOwnerOf(key);
+            if (owner != null && checkpoint == null) {
+                taskManager.getTaskInfo(taskId).addCancelListener(() -> clusterRouter.cancelRemote(owner, taskId));
+                SolveResponse remote = clusterRouter.forward(owner, "/api/v1/cryptator/solve", request, SolveResponse.class);
+                if (remote != null) {
+                    return copyFor(cacheResult(key, remote), taskId);
+                }
+            }
+
+            // The search runs on the bounded solver pool, shared by concurrent identical requests; a search saving
+            // or resuming a checkpoint is not shared, since its solutions and checkpoint belong to its own task
+            int[] searchLimit = {timeLimit};
+            String flightKey = checkpoint != null ? key + "|checkpoint=" + taskId : key;
+            SolveResponse shared = requestCoalescer.<SolveResponse>execute(flightKey, "SOLVE", taskId,
+                    sharedTaskId -> {
+                        // The time spent queued on the solver pool is taken from the budget
+                        int limit = startLimit(deadline, timeLimit, taskId, sharedTaskId);
+                        searchLimit[0] = limit;
+                        SolveResponse result = recordNegative(puzzleKey, limit,
+                                solve(sharedTaskId, cryptarithm, solverTypeStr, solutionLimit, limit,
+                                        arithmeticBase, checkSolution, allowLeadingZeros, hornerScheme, assignments,
+                                        null, checkpoint));
+                        // A search cut short by the queueing is not the answer of the cached time limit
+                        return limit == timeLimit ? cacheResult(key, result) : result;
+                    })
+                .join();
+            return completed(checkpoint, copyFor(shared, taskId), searchLimit[0]);
+        } catch (CancellationException e) {
+            response.setSuccess(false);
+            response.setError(deadline != null && !deadline.canStart()
+                ? RequestDeadline.exceededMessage() : "Task cancelled by user");
+        } catch (RejectedExecutionException e) {
+            response.setSuccess(false);
+            response.setError("Server busy: all solver threads are in use. Please try again later.");
+        } catch (CompletionException e) {
+            response.setSuccess(false);
+            response.setError(e.getCause() instanceof RejectedExecutionException
+                ? "Server busy: all solver threads are in use. Please try again later."
+                : "Error: " + e.getCause().getMessage());
+        } finally {
+            // Unregister task
+            taskManager.unregisterTask(taskId);
+        }
+        if (checkpoint != null) {
+            response.setResumeToken(checkpoint.getResumeToken());
+        }
+        return response;
+    }
+
+    /**
+     * Time limit of a search leaving the solver queue: the time spent queued is taken from the client budget
+     * A client left with less than the minimum budget leaves the shared computation, which is then shed
+     * unless other clients still wait for it.
+     * @throws CancellationException if no client waits for the computation any more
+     */
+    private int startLimit(RequestDeadline deadline, int timeLimit, String taskId, String sharedTaskId) {
+        if (deadline == null) {
+            return timeLimit;
+        }
+        if (deadline.canStart()) {
+            return deadline.timeLimit(timeLimit);
+        }
+        taskManager.cancelTask(taskId);
+        if (taskManager.isCancelled(sharedTaskId)) {
+            throw new CancellationException(RequestDeadline.exceededMessage());
+        }
+        return timeLimit;
+    }
+
+    /**
+     * Delete the checkpoint of an enumeration once it has completed, or give its resume token to the client
+     */
+    private SolveResponse completed(Checkpoint checkpoint, SolveResponse response, int timeLimit) {
+        if (checkpoint != null && isComplete(response, timeLimit)) {
+            taskManager.deleteCheckpoint(checkpoint.getTaskId());
+        } else if (checkpoint != null) {
+            response.setResumeToken(checkpoint.getResumeToken());
+        }
+        return response;
+    }
+
+    private static boolean isComplete(SolveResponse response, int timeLimit) {
+        return response.getError() == null && !NegativeResultCache.timedOut(timeLimit, response.getExecutionTimeMs());
+    }
+
+    /**
+     * Copy a shared response for one of its subscribers
+     */
+    private static SolveResponse copyFor(SolveResponse shared, String taskId) {
+        SolveResponse response = new SolveResponse();
+        response.setSuccess(shared.isSuccess());
+        response.setCryptarithm(shared.getCryptarithm());
+        response.setSolutions(shared.getSolutions());
+        response.setError(shared.getError());
+        response.setExecutionTimeMs(shared.getExecutionTimeMs());
+        response.setSolutionCount(shared.getSolutionCount());
+        response.setTaskId(taskId);
+        response.setCached(shared.isCached());
+        response.setInfeasibility(shared.getInfeasibility());
+        return response;
+    }
+
+    /**
+     * Store a completed search in the result cache
+     */
+    private SolveResponse cacheResult(String key, SolveResponse response) {
+        if (response.getError() == null) {
+            resultCache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Remember a completed search that found no solution
+     */
+    private SolveResponse recordNegative(String puzzleKey, int timeLimit, SolveResponse response) {
+        if (response.getError() == null && response.getSolutionCount() == 0) {
+            negativeResultCache.record(puzzleKey, response.getCryptarithm(), timeLimit,
+                    response.getExecutionTimeMs(), response.isSuccess());
+        }
+        return response;
+    }
+
+    /**
+     * Build the response of a request short-circuited by the negative cache
+     */
+    private static SolveResponse negativeResponse(NegativeResultCache.Entry negative, String cryptarithm, String taskId) {
+        SolveResponse response = new SolveResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+        response.setSuccess(negative.isSuccess());
+        response.setSolutions(new ArrayList<>());
+        response.setCached(true);
+        if (negative.getOutcome() == NegativeResultCache.Outcome.TIMEOUT) {
+            response.setError("Timed out without solution within " + negative.getTimeLimit()
+                + "s under this configuration. Retry with a larger timeLimit.");
+        }
+        return response;
+    }
+
+    /**
+     * Count the solutions of a cryptarithm without building them
+     * Counts are cached separately from full solution sets, and a count of zero feeds the negative cache.
+     */
+    public CountResponse countSolutions(SolveRequest request) {
+        String taskId = (request.getTaskId() != null && !request.getTaskId().trim().isEmpty())
+            ? request.getTaskId()
+            : UUID.randomUUID().toString();
+        taskManager.registerTask("COUNT", taskId);
+
+        String cryptarithm = request.getCryptarithm();
+        String solverType = request.getSolverType();
+        int solutionLimit = request.getSolutionLimit();
+        RequestDeadline deadline = RequestDeadline.current();
+        int timeLimit = deadline != null ? deadline.timeLimit(request.getTimeLimit()) : request.getTimeLimit();
+        if (deadline != null) {
+            deadline.cancelAtDeadline(taskManager.getTaskInfo(taskId));
+        }
+        int base = request.getArithmeticBase();
+        boolean allowLeadingZeros = Boolean.TRUE.equals(request.getAllowLeadingZeros());
+        boolean horner = Boolean.TRUE.equals(request.getHornerScheme());
+
+        CountResponse response = new CountResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+        try {
+            String puzzleKey = RequestKey.puzzle(cryptarithm, solverType, base, allowLeadingZeros, horner,
+                    request.getAssignments());
+            NegativeResultCache.Entry negative = negativeResultCache.lookup(puzzleKey, timeLimit);
+            if (negative != null) {
+                response.setSuccess(negative.isSuccess());
+                response.setComplete(negative.getOutcome() == NegativeResultCache.Outcome.NO_SOLUTION);
+                response.setCached(true);
+                if (!response.isComplete()) {
+                    response.setError("Timed out without solution within " + negative.getTimeLimit()
+                        + "s under this configuration. Retry with a larger timeLimit.");
+                }
+                return response;
+            }
+
+            String key = RequestKey.count(cryptarithm, solverType, solutionLimit, timeLimit, base,
+                    allowLeadingZeros, horner, request.getAssignments());
+            CountResponse cached = resultCache.get(key, CountResponse.class);
+            if (cached != null) {
+                CountResponse hit = copyFor(cached, taskId);
+                hit.setCached(true);
+                return hit;
+            }
+
+            CountResponse shared = requestCoalescer.<CountResponse>execute(key, "COUNT", taskId,
+                    sharedTaskId -> {
+                        int limit = startLimit(deadline, timeLimit, taskId, sharedTaskId);
+                        CountResponse result = count(sharedTaskId, cryptarithm, solverType, solutionLimit, limit,
+                                base, allowLeadingZeros, horner, request.getAssignments());
+                        if (result.getError() == null) {
+                            if (result.getSolutionCount() == 0) {
+                                negativeResultCache.record(puzzleKey, cryptarithm, limit,
+                                        result.getExecutionTimeMs(), result.isSuccess());
+                            }
+                            if (limit == timeLimit) {
+                                resultCache.put(key, result);
+                            }
+                        }
+                        return result;
+                    })
+                .join();
+            return copyFor(shared, taskId);
+        } catch (CancellationException e) {
+            response.setError(deadline != null && !deadline.canStart()
+                ? RequestDeadline.exceededMessage() : "Task cancelled by user");
+        } catch (RejectedExecutionException e) {
+            response.setError("Server busy: all solver threads are in use. Please try again later.");
+        } catch (CompletionException e) {
+            response.setError(e.getCause() instanceof RejectedExecutionException
+                ? "Server busy: all solver threads are in use. Please try again later."
+                : "Error: " + e.getCause().getMessage());
+        } finally {
+            taskManager.unregisterTask(taskId);
+        }
+        return response;
+    }
+
+    /**
+     * Copy a shared count for one of its subscribers
+     */
+    private static CountResponse copyFor(CountResponse shared, String taskId) {
+        CountResponse response = new CountResponse();
+        response.setSuccess(shared.isSuccess());
+        response.setCryptarithm(shared.getCryptarithm());
+        response.setSolutionCount(shared.getSolutionCount());
+        response.setComplete(shared.isComplete());
+        response.setSolutionLimitReached(shared.isSolutionLimitReached());
+        response.setFirstSolutionTimeMs(shared.getFirstSolutionTimeMs());
+        response.setError(shared.getError());
+        response.setExecutionTimeMs(shared.getExecutionTimeMs());
+        response.setTaskId(taskId);
+        response.setCached(shared.isCached());
+        response.setInfeasibility(shared.getInfeasibility());
+        return response;
+    }
+
+    private CountResponse count(String taskId, String cryptarithm, String solverTypeStr,
+                                int solutionLimit, int timeLimit,
+                                int arithmeticBase, boolean allowLeadingZeros, boolean hornerScheme,
+                                java.util.Map<String, Integer> assignments) {
+        CountResponse response = new CountResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+
         long startTime = System.currentTimeMillis();
-        
         try {
-            // Configure the solver
-            CryptatorConfig config = new CryptatorConfig();
-            config.setSolverType(CryptaCmdConfig.SolverType.valueOf(solverTypeStr));
-            config.setSolutionLimit(solutionLimit);
-            config.setTimeLimit(timeLimit);
-            config.setArithmeticBase(arithmeticBase);
-            config.setAllowLeadingZeros(allowLeadingZeros);
-            config.setHornerScheme(hornerScheme);
-            
-            // Note: Manual assignments (--assign) are not directly supported via config
-            // This would require solver-level API access not exposed in CryptatorConfig
-            if (assignments != null && !assignments.isEmpty()) {
-                System.out.println("Warning: Manual assignments requested but not yet implemented in API");
-                // TODO: Implement solver.assign() if needed
+            CryptatorConfig config = configure(solverTypeStr, solutionLimit, timeLimit, arithmeticBase,
+                    allowLeadingZeros, hornerScheme);
+            ICryptaNode node = parse(cryptarithm);
+            AssignmentHints hints = AssignmentHints.of(assignments, node, arithmeticBase, allowLeadingZeros);
+            InfeasibilityAnalyzer.Result infeasible = infeasibilityAnalyzer.analyze(node, arithmeticBase, allowLeadingZeros, hints);
+            if (infeasible != null) {
+                response.setSuccess(true);
+                response.setComplete(true);
+                response.setInfeasibility(infeasible.toString());
+                response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+                return response;
             }
-            
-            // Parse cryptarithm
-            CryptaParserWrapper parser = new CryptaParserWrapper();
-            Logger tempLogger = Logger.getLogger("TempLogger");
-            tempLogger.setUseParentHandlers(false);
-            ICryptaNode node = parseCryptarithm(cryptarithm, parser, tempLogger);
-            
-            // Create solver
+            ICryptaSolver solver = createSolver(config);
+            solver.limitSolution(hints.isEmpty() ? solutionLimit : 0);
+            solver.limitTime(timeLimit);
+
+            CountingConsumer consumer = new CountingConsumer(taskManager.getTaskInfo(taskId), hints, solutionLimit);
+            boolean solved;
+            try {
+                // With hints, the search succeeds only if a solution agrees with them
+                solved = solver.solve(node, config, consumer) && (hints.isEmpty() || consumer.count > 0);
+            } catch (SolutionLimitReached e) {
+                solved = true;
+            }
+
+            if (taskManager.isCancelled(taskId)) {
+                response.setSuccess(false);
+                response.setError("Task cancelled by user");
+            } else {
+                long elapsedMs = System.currentTimeMillis() - startTime;
+                boolean limitReached = solutionLimit > 0 && consumer.count >= solutionLimit;
+                response.setSuccess(solved);
+                response.setSolutionCount(consumer.count);
+                response.setSolutionLimitReached(limitReached);
+                response.setComplete(!limitReached && !NegativeResultCache.timedOut(timeLimit, elapsedMs));
+                if (consumer.count > 0) {
+                    response.setFirstSolutionTimeMs(TimeUnit.NANOSECONDS.toMillis(consumer.firstSolutionNanos - consumer.startNanos));
+                }
+            }
+        } catch (Exception e) {
+            response.setSuccess(false);
+            response.setError(errorMessage(e));
+        }
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    /**
+     * Count the solutions of a cryptarithm in each base of a range
+     * The cryptarithm is parsed once; bases proved infeasible (e.g. fewer digits than symbols) or known by the
+     * negative cache are answered without solver, the others are solved in parallel on the solver pool.
+     */
+    public BaseSweepResponse sweepBases(BaseSweepRequest request) {
+        String taskId = (request.getTaskId() != null && !request.getTaskId().trim().isEmpty())
+            ? request.getTaskId()
+            : UUID.randomUUID().toString();
+        taskManager.registerTask("SWEEP", taskId);
+        TaskManager.TaskInfo task = taskManager.getTaskInfo(taskId);
+
+        String cryptarithm = request.getCryptarithm();
+        String solverType = request.getSolverType();
+        int solutionLimit = request.getSolutionLimit();
+        int timeLimit = request.getTimeLimit();
+        boolean allowLeadingZeros = Boolean.TRUE.equals(request.getAllowLeadingZeros());
+        boolean horner = Boolean.TRUE.equals(request.getHornerScheme());
+
+        BaseSweepResponse response = new BaseSweepResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+        long startTime = System.currentTimeMillis();
+        try {
+            if (request.getMaxBase() < request.getMinBase()) {
+                response.setError("maxBase must be greater than or equal to minBase");
+                return response;
+            }
+            ICryptaNode node;
+            try {
+                node = parse(cryptarithm);
+            } catch (CryptaParserException e) {
+                response.setError(errorMessage(e));
+                return response;
+            }
+
+            int bases = request.getMaxBase() - request.getMinBase() + 1;
+            AtomicInteger completed = new AtomicInteger();
+            task.setProgress("bases", bases);
+            task.setProgress("completedBases", 0);
+
+            // A few bases at a time, so that a sweep leaves most solver threads to the other requests
+            Semaphore permits = new Semaphore(Math.max(1, Math.min(sweepParallelism, solverPool.getPoolSize() / 4)));
+            List<CompletableFuture<BaseSweepResponse.BaseResult>> futures = new ArrayList<>();
+            for (int base = request.getMinBase(); base <= request.getMaxBase() && !task.isCancelled(); base++) {
+                int b = base;
+                String puzzleKey = RequestKey.puzzle(cryptarithm, solverType, b, allowLeadingZeros, horner, null);
+                BaseSweepResponse.BaseResult known = knownBaseResult(node, puzzleKey, cryptarithm, b,
+                        timeLimit, allowLeadingZeros);
+                if (known != null) {
+                    task.setProgress("completedBases", completed.incrementAndGet());
+                    futures.add(CompletableFuture.completedFuture(known));
+                    continue;
+                }
+                if (!acquire(permits, task)) {
+                    break;
+                }
+                try {
+                    futures.add(solverPool.submit(() -> countBase(task, node, puzzleKey, cryptarithm, solverType, b,
+                                    solutionLimit, timeLimit, allowLeadingZeros, horner))
+                        .whenComplete((result, error) -> {
+                            permits.release();
+                            task.setProgress("completedBases", completed.incrementAndGet());
+                        }));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    BaseSweepResponse.BaseResult busy = new BaseSweepResponse.BaseResult();
+                    busy.setBase(b);
+                    busy.setError("Server busy: all solver threads are in use. Please try again later.");
+                    futures.add(CompletableFuture.completedFuture(busy));
+                }
+            }
+
+            List<BaseSweepResponse.BaseResult> results = new ArrayList<>();
+            for (CompletableFuture<BaseSweepResponse.BaseResult> future : futures) {
+                results.add(future.join());
+            }
+            if (task.isCancelled()) {
+                response.setError("Task cancelled by user");
+            } else {
+                response.setSuccess(results.stream().allMatch(result -> result.getError() == null));
+            }
+            response.setResults(results);
+        } finally {
+            taskManager.unregisterTask(taskId);
+            response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        }
+        return response;
+    }
+
+    /**
+     * Wait for a sweep permit, unless the sweep is cancelled
+     * @return false if the sweep was cancelled or interrupted
+     */
+    private static boolean acquire(Semaphore permits, TaskManager.TaskInfo task) {
+        try {
+            while (!task.isCancelled()) {
+                if (permits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel();
+        }
+        return false;
+    }
+
+    /**
+     * Answer a base of a sweep without solver, from the negative cache or the infeasibility pre-check
+     * @return the result, or null if the base must be solved
+     */
+    private BaseSweepResponse.BaseResult knownBaseResult(ICryptaNode node, String puzzleKey, String cryptarithm,
+                                                         int base, int timeLimit, boolean allowLeadingZeros) {
+        BaseSweepResponse.BaseResult result = new BaseSweepResponse.BaseResult();
+        result.setBase(base);
+        NegativeResultCache.Entry negative = negativeResultCache.lookup(puzzleKey, timeLimit);
+        if (negative != null) {
+            if (negative.getOutcome() == NegativeResultCache.Outcome.TIMEOUT) {
+                result.setError("Timed out without solution within " + negative.getTimeLimit() + "s");
+            }
+            return result;
+        }
+        InfeasibilityAnalyzer.Result infeasible = infeasibilityAnalyzer.analyze(node, base, allowLeadingZeros,
+                AssignmentHints.NONE);
+        if (infeasible != null) {
+            result.setInfeasibility(infeasible.toString());
+            negativeResultCache.record(puzzleKey, cryptarithm, timeLimit, 0, true);
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Count the solutions of a parsed cryptarithm in one base of a sweep
+     */
+    private BaseSweepResponse.BaseResult countBase(TaskManager.TaskInfo task, ICryptaNode node, String puzzleKey,
+                                                   String cryptarithm, String solverTypeStr, int base,
+                                                   int solutionLimit, int timeLimit,
+                                                   boolean allowLeadingZeros, boolean hornerScheme) {
+        BaseSweepResponse.BaseResult result = new BaseSweepResponse.BaseResult();
+        result.setBase(base);
+        long startTime = System.currentTimeMillis();
+        try {
+            CryptatorConfig config = configure(solverTypeStr, solutionLimit, timeLimit, base,
+                    allowLeadingZeros, hornerScheme);
             ICryptaSolver solver = createSolver(config);
             solver.limitSolution(solutionLimit);
             solver.limitTime(timeLimit);
+            CountingConsumer consumer = new CountingConsumer(task, AssignmentHints.NONE, solutionLimit);
+            boolean solved = solver.solve(node, config, consumer);
+            if (task.isCancelled()) {
+                result.setError("Task cancelled by user");
+            } else {
+                result.setSolutionCount(consumer.count);
+                result.setFirstSolution(consumer.firstSolution);
+                if (consumer.count == 0) {
+                    negativeResultCache.record(puzzleKey, cryptarithm, timeLimit,
+                            System.currentTimeMillis() - startTime, solved);
+                }
+            }
+        } catch (Exception e) {
+            result.setError(errorMessage(e));
+        }
+        result.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Check whether a cryptarithm has exactly one solution
+     * The search stops as soon as a second solution is found. Definitive verdicts are cached;
+     * UNKNOWN (time limit, cancellation, error) is not.
+     */
+    public UniquenessResponse checkUniqueness(UniquenessRequest request) {
+        String taskId = (request.getTaskId() != null && !request.getTaskId().trim().isEmpty())
+            ? request.getTaskId()
+            : UUID.randomUUID().toString();
+        taskManager.registerTask("UNIQUENESS", taskId);
+
+        String cryptarithm = request.getCryptarithm();
+        String solverType = request.getSolverType();
+        RequestDeadline deadline = RequestDeadline.current();
+        int timeLimit = deadline != null ? deadline.timeLimit(request.getTimeLimit()) : request.getTimeLimit();
+        if (deadline != null) {
+            deadline.cancelAtDeadline(taskManager.getTaskInfo(taskId));
+        }
+        int base = request.getArithmeticBase();
+        boolean allowLeadingZeros = Boolean.TRUE.equals(request.getAllowLeadingZeros());
+        boolean horner = Boolean.TRUE.equals(request.getHornerScheme());
+
+        UniquenessResponse response = new UniquenessResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+        response.setVerdict(UniquenessResponse.Verdict.UNKNOWN);
+        long startTime = System.currentTimeMillis();
+        try {
+            String key = RequestKey.uniqueness(cryptarithm, solverType, base, allowLeadingZeros, horner,
+                    request.getAssignments());
+            UniquenessResponse cached = resultCache.get(key, UniquenessResponse.class);
+            if (cached != null) {
+                UniquenessResponse hit = copyFor(cached, taskId);
+                hit.setCached(true);
+                return hit;
+            }
+
+            String puzzleKey = RequestKey.puzzle(cryptarithm, solverType, base, allowLeadingZeros, horner,
+                    request.getAssignments());
+            NegativeResultCache.Entry negative = negativeResultCache.lookup(puzzleKey, timeLimit);
+            if (negative != null) {
+                response.setVerdict(negative.getOutcome() == NegativeResultCache.Outcome.NO_SOLUTION
+                    ? UniquenessResponse.Verdict.NONE
+                    : UniquenessResponse.Verdict.UNKNOWN);
+                response.setSolutions(new ArrayList<>());
+                response.setCached(true);
+                return response;
+            }
+
+            UniquenessResponse shared = requestCoalescer.<UniquenessResponse>execute(key + "|t" + timeLimit,
+                    "UNIQUENESS", taskId,
+                    sharedTaskId -> {
+                        int limit = startLimit(deadline, timeLimit, taskId, sharedTaskId);
+                        UniquenessResponse verdict = verdict(recordNegative(puzzleKey, limit,
+                                solve(sharedTaskId, cryptarithm, solverType, 2, limit, base, false,
+                                        allowLeadingZeros, horner, request.getAssignments(), null, null)), limit);
+                        if (verdict.getVerdict() != UniquenessResponse.Verdict.UNKNOWN) {
+                            resultCache.put(key, verdict);
+                        }
+                        return verdict;
+                    })
+                .join();
+            return copyFor(shared, taskId);
+        } catch (CancellationException e) {
+            response.setError(deadline != null && !deadline.canStart()
+                ? RequestDeadline.exceededMessage() : "Task cancelled by user");
+        } catch (RejectedExecutionException e) {
+            response.setError("Server busy: all solver threads are in use. Please try again later.");
+        } catch (CompletionException e) {
+            response.setError(e.getCause() instanceof RejectedExecutionException
+                ? "Server busy: all solver threads are in use. Please try again later."
+                : "Error: " + e.getCause().getMessage());
+        } finally {
+            taskManager.unregisterTask(taskId);
+        }
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    /**
+     * Check many cryptarithms in parallel, within the capacity of the solver pool
+     * @return the responses, in the order of the requests
+     */
+    public List<UniquenessResponse> checkUniquenessBatch(List<UniquenessRequest> requests) {
+        // A few puzzles at a time, so that a batch leaves most solver threads to the other requests
+        Semaphore permits = new Semaphore(Math.max(1, Math.min(batchParallelism, solverPool.getPoolSize() / 4)));
+        List<CompletableFuture<UniquenessResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UniquenessRequest request : requests) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        return checkUniqueness(request);
+                    } finally {
+                        permits.release();
+                    }
+                }, executor));
+            }
+        }
+        List<UniquenessResponse> responses = new ArrayList<>();
+        for (CompletableFuture<UniquenessResponse> future : futures) {
+            responses.add(future.join());
+        }
+        return responses;
+    }
+
+    /**
+     * Turn a search limited to two solutions into a uniqueness verdict
+     */
+    private static UniquenessResponse verdict(SolveResponse result, int timeLimit) {
+        UniquenessResponse response = new UniquenessResponse();
+        response.setCryptarithm(result.getCryptarithm());
+        response.setTaskId(result.getTaskId());
+        response.setSolutions(result.getSolutions() != null ? result.getSolutions() : new ArrayList<>());
+        response.setError(result.getError());
+        response.setExecutionTimeMs(result.getExecutionTimeMs());
+        if (result.getError() != null) {
+            response.setVerdict(UniquenessResponse.Verdict.UNKNOWN);
+        } else if (result.getSolutionCount() >= 2) {
+            response.setVerdict(UniquenessResponse.Verdict.MULTIPLE);
+        } else if (NegativeResultCache.timedOut(timeLimit, result.getExecutionTimeMs())) {
+            // The search was stopped before proving that no other solution exists
+            response.setVerdict(UniquenessResponse.Verdict.UNKNOWN);
+            response.setError("Time limit of " + timeLimit + "s reached before a verdict");
+        } else {
+            response.setVerdict(result.getSolutionCount() == 1
+                ? UniquenessResponse.Verdict.UNIQUE
+                : UniquenessResponse.Verdict.NONE);
+        }
+        return response;
+    }
+
+    /**
+     * Copy a shared verdict for one of its subscribers
+     */
+    private static UniquenessResponse copyFor(UniquenessResponse shared, String taskId) {
+        UniquenessResponse response = new UniquenessResponse();
+        response.setCryptarithm(shared.getCryptarithm());
+        response.setVerdict(shared.getVerdict());
+        response.setSolutions(shared.getSolutions());
+        response.setError(shared.getError());
+        response.setExecutionTimeMs(shared.getExecutionTimeMs());
+        response.setTaskId(taskId);
+        response.setCached(shared.isCached());
+        return response;
+    }
+
+    /**
+     * Solve a cryptarithm in the calling thread, pushing each solution to the listener as soon as it is found
+     * instead of accumulating them in the response. The caller is expected to run on a bounded scheduler.
+     */
+    public SolveResponse solveCryptarithmStreaming(String taskId, SolveRequest request,
+                                                   Consumer<SolveResponse.Solution> listener) {
+        taskManager.registerTask("SOLVE", taskId);
+        try {
+            String puzzleKey = RequestKey.puzzle(request.getCryptarithm(), request.getSolverType(),
+                    request.getArithmeticBase(), Boolean.TRUE.equals(request.getAllowLeadingZeros()),
+                    Boolean.TRUE.equals(request.getHornerScheme()), request.getAssignments());
+            NegativeResultCache.Entry negative = negativeResultCache.lookup(puzzleKey, request.getTimeLimit());
+            if (negative != null) {
+                return negativeResponse(negative, request.getCryptarithm(), taskId);
+            }
+            return recordNegative(puzzleKey, request.getTimeLimit(),
+                    solve(taskId, request.getCryptarithm(), request.getSolverType(),
+                            request.getSolutionLimit(), request.getTimeLimit(), request.getArithmeticBase(),
+                            Boolean.TRUE.equals(request.getCheckSolution()),
+                            Boolean.TRUE.equals(request.getAllowLeadingZeros()),
+                            Boolean.TRUE.equals(request.getHornerScheme()),
+                            request.getAssignments(), listener, null));
+        } finally {
+            taskManager.unregisterTask(taskId);
+        }
+    }
+
+    private SolveResponse solve(String taskId, String cryptarithm, String solverTypeStr,
+                                int solutionLimit, int timeLimit,
+                                int arithmeticBase, boolean checkSolution,
+                                boolean allowLeadingZeros, boolean hornerScheme,
+                                java.util.Map<String, Integer> assignments,
+                                Consumer<SolveResponse.Solution> listener, Checkpoint checkpoint) {
+        
+        SolveResponse response = new SolveResponse();
+        response.setCryptarithm(cryptarithm);
+        response.setTaskId(taskId);
+        
+        long startTime = System.currentTimeMillis();
+        SolutionCapturingConsumer consumer = null;
+        
+        try {
+            CryptatorConfig config = configure(solverTypeStr, solutionLimit, timeLimit, arithmeticBase,
+                    allowLeadingZeros, hornerScheme);
+            ICryptaNode node = parse(cryptarithm);
+            AssignmentHints hints = AssignmentHints.of(assignments, node, arithmeticBase, allowLeadingZeros);
+            InfeasibilityAnalyzer.Result infeasible = infeasibilityAnalyzer.analyze(node, arithmeticBase, allowLeadingZeros, hints);
+            if (infeasible != null) {
+                // Proved without search: the solver is never created
+                response.setSuccess(true);
+                response.setSolutions(new ArrayList<>());
+                response.setInfeasibility(infeasible.toString());
+                response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+                return response;
+            }
+            ICryptaSolver solver = createSolver(config);
+            // With hints, the consumer enforces the solution limit on the solutions agreeing with them
+            solver.limitSolution(hints.isEmpty() ? solutionLimit : 0);
+            solver.limitTime(timeLimit);
             
             // Capture solutions
-            SolutionCapturingConsumer consumer = new SolutionCapturingConsumer(checkSolution, arithmeticBase, node, taskId, taskManager);
-            boolean solved = solver.solve(node, config, consumer);
+            consumer = new SolutionCapturingConsumer(checkSolution, arithmeticBase, node, taskId, taskManager);
+            consumer.setListener(listener);
+            consumer.setHints(hints, solutionLimit);
+            consumer.setCheckpoint(checkpoint);
+            boolean solved;
+            try {
+                // With hints, the search succeeds only if a solution agrees with them
+                solved = solver.solve(node, config, consumer) && (hints.isEmpty() || consumer.getSolutionCount() > 0);
+            } catch (SolutionLimitReached e) {
+                solved = true;
+            }
             
             // Check if cancelled
             if (taskManager.isCancelled(taskId)) {
@@ -102,50 +888,139 @@ public class CryptatorService {
             } else {
                 response.setSuccess(solved);
                 response.setSolutions(consumer.getSolutions());
-                response.setSolutionCount(consumer.getSolutions().size());
+                response.setSolutionCount(consumer.getSolutionCount());
             }
             
-        } catch (CryptaParserException e) {
-            response.setSuccess(false);
-            response.setError("Parse error: " + e.getMessage());
-        } catch (CryptaModelException e) {
-            response.setSuccess(false);
-            response.setError("Model error: " + e.getMessage());
-        } catch (CryptaSolverException e) {
-            response.setSuccess(false);
-            response.setError("Solver error: " + e.getMessage());
-        } catch (RuntimeException e) {
-            // Check if it's a cancellation exception
-            if (e.getMessage() != null && e.getMessage().contains("cancelled")) {
-                response.setSuccess(false);
-                response.setError("Task cancelled by user");
-            } else {
-                response.setSuccess(false);
-                response.setError("Error: " + e.getMessage());
-            }
         } catch (Exception e) {
             response.setSuccess(false);
-            response.setError("Error: " + e.getMessage());
+            response.setError(errorMessage(e));
         }
         
         long endTime = System.currentTimeMillis();
         response.setExecutionTimeMs(endTime - startTime);
-        
-        // Unregister task
-        taskManager.unregisterTask(taskId);
+        if (consumer != null && !isComplete(response, timeLimit)) {
+            if (checkpoint != null) {
+                checkpoint.setTimedOutAfter(response.getError() == null ? timeLimit : null);
+            }
+            consumer.saveCheckpoint(response.getError() != null ? response.getError() : "Time limit reached");
+        }
         
         return response;
     }
     
+    /**
+     * Build the solver configuration of a request
+     */
+    private static CryptatorConfig configure(String solverTypeStr, int solutionLimit, int timeLimit,
+                                             int arithmeticBase, boolean allowLeadingZeros, boolean hornerScheme) {
+        CryptatorConfig config = new CryptatorConfig();
+        config.setSolverType(CryptaCmdConfig.SolverType.valueOf(solverTypeStr));
+        config.setSolutionLimit(solutionLimit);
+        config.setTimeLimit(timeLimit);
+        config.setArithmeticBase(arithmeticBase);
+        config.setAllowLeadingZeros(allowLeadingZeros);
+        config.setHornerScheme(hornerScheme);
+        return config;
+    }
+
+    /**
+     * Parse a cryptarithm, without logging parse errors
+     */
+    private static ICryptaNode parse(String cryptarithm) throws CryptaParserException {
+        CryptaParserWrapper parser = new CryptaParserWrapper();
+        Logger tempLogger = Logger.getLogger("TempLogger");
+        tempLogger.setUseParentHandlers(false);
+        return parseCryptarithm(cryptarithm, parser, tempLogger);
+    }
+
+    /**
+     * Error message of a failed search
+     */
+    private static String errorMessage(Exception e) {
+        if (e instanceof AssignmentHints.InvalidHintException) {
+            return "Invalid assignments: " + e.getMessage();
+        }
+        if (e instanceof CryptaParserException) {
+            return "Parse error: " + e.getMessage();
+        }
+        if (e instanceof CryptaModelException) {
+            return "Model error: " + e.getMessage();
+        }
+        if (e instanceof CryptaSolverException) {
+            return "Solver error: " + e.getMessage();
+        }
+        // Check if it's a cancellation exception
+        if (e instanceof RuntimeException && e.getMessage() != null && e.getMessage().contains("cancelled")) {
+            return "Task cancelled by user";
+        }
+        return "Error: " + e.getMessage();
+    }
+    
+    /**
+     * Consumer counting solutions: no logging, no check and no allocation per solution
+     */
+    static final class CountingConsumer implements BiConsumer<ICryptaNode, ICryptaSolution> {
+
+        private final TaskManager.TaskInfo task;
+        private final AssignmentHints hints;
+        private final int solutionLimit;
+        private final long startNanos = System.nanoTime();
+        private long firstSolutionNanos;
+        private String firstSolution;
+        private long count;
+
+        CountingConsumer(TaskManager.TaskInfo task, AssignmentHints hints, int solutionLimit) {
+            this.task = task;
+            this.hints = hints;
+            this.solutionLimit = solutionLimit;
+        }
+
+        @Override
+        public void accept(ICryptaNode node, ICryptaSolution solution) {
+            if (task != null && task.isCancelled()) {
+                // Throw exception to stop the solver immediately
+                throw new RuntimeException("Task cancelled by user");
+            }
+            if (!hints.isEmpty() && !hints.matches(solution)) {
+                return;
+            }
+            if (count++ == 0) {
+                firstSolutionNanos = System.nanoTime();
+                firstSolution = solution.toString();
+            }
+            if (!hints.isEmpty() && solutionLimit > 0 && count >= solutionLimit) {
+                throw new SolutionLimitReached();
+            }
+        }
+    }
+
+    /**
+     * Thrown by a consumer to stop the search once it has enough solutions agreeing with the hints
+     */
+    static final class SolutionLimitReached extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SolutionLimitReached() {
+            super("Solution limit reached", null, false, false);
+        }
+    }
+
     /**
      * Custom consumer to capture solutions
      */
-    private static class SolutionCapturingConsumer extends CryptaBiConsumer {
+    static class SolutionCapturingConsumer extends CryptaBiConsumer {
         
         private final List<SolveResponse.Solution> solutions = new ArrayList<>();
         private final ICryptaNode lastNode;
         private final String taskId;
         private final TaskManager taskManager;
+        private Consumer<SolveResponse.Solution> listener;
+        private AssignmentHints hints = AssignmentHints.NONE;
+        private int solutionLimit;
+        private int solutionCount;
+        private Checkpoint checkpoint;
+        private Set<String> checkpointed = Collections.emptySet();
+        private long nextCheckpoint;
         
         public SolutionCapturingConsumer(boolean checkSolution, int base, ICryptaNode node, String taskId, TaskManager taskManager) {
             super(Logger.getLogger("SolutionLogger"));
@@ -157,6 +1032,49 @@ public class CryptatorService {
             }
         }
         
+        /**
+         * Push solutions to the listener instead of keeping them (null to keep them)
+         */
+        public void setListener(Consumer<SolveResponse.Solution> listener) {
+            this.listener = listener;
+        }
+        
+        /**
+         * Keep only the solutions agreeing with the hints, and stop the search after solutionLimit of them (0 = all)
+         */
+        public void setHints(AssignmentHints hints, int solutionLimit) {
+            this.hints = hints;
+            this.solutionLimit = solutionLimit;
+        }
+        
+        /**
+         * Save the progress of the search in a checkpoint (null for none), starting from its solutions
+         */
+        public void setCheckpoint(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            if (checkpoint != null) {
+                solutions.addAll(checkpoint.getSolutions());
+                solutionCount = solutions.size();
+                checkpointed = new HashSet<>();
+                for (SolveResponse.Solution solution : solutions) {
+                    checkpointed.add(solution.getAssignment());
+                }
+                nextCheckpoint = System.currentTimeMillis() + taskManager.getCheckpointIntervalMs();
+            }
+        }
+        
+        /**
+         * Save the solutions found so far in the checkpoint
+         * @param reason why the search stopped, or null while it runs
+         */
+        public void saveCheckpoint(String reason) {
+            if (checkpoint != null) {
+                checkpoint.setSolutions(new ArrayList<>(solutions));
+                checkpoint.setReason(reason);
+                taskManager.saveCheckpoint(checkpoint);
+            }
+        }
+        
         @Override
         public void accept(ICryptaNode node, ICryptaSolution solution) {
             // Check if task is cancelled before processing
@@ -164,27 +1082,52 @@ public class CryptatorService {
                 // Throw exception to stop the solver immediately
                 throw new RuntimeException("Task cancelled by user");
             }
+            if (!hints.isEmpty() && !hints.matches(solution)) {
+                return;
+            }
+            if (!checkpointed.isEmpty() && checkpointed.contains(solution.toString())) {
+                // Found before the checkpoint
+                return;
+            }
             
             super.accept(node, solution);
             
+            SolveResponse.Solution sol;
             try {
                 // Get assignment and evaluation strings from the solution
                 String assignment = solution.toString();
                 String evaluation = cryptator.tree.TreeUtils.writeInorder(node) + " = " + solution.toString();
                 
-                SolveResponse.Solution sol = new SolveResponse.Solution();
+                sol = new SolveResponse.Solution();
                 sol.setAssignment(assignment);
                 sol.setEvaluation(evaluation);
                 sol.setValid(getErrorCount() == 0);
-                
-                solutions.add(sol);
             } catch (Exception e) {
                 // Log error but continue
+                return;
+            }
+            
+            solutionCount++;
+            if (listener != null) {
+                listener.accept(sol);
+            } else {
+                solutions.add(sol);
+            }
+            if (!hints.isEmpty() && solutionLimit > 0 && solutionCount >= solutionLimit) {
+                throw new SolutionLimitReached();
+            }
+            if (checkpoint != null && System.currentTimeMillis() >= nextCheckpoint) {
+                saveCheckpoint(null);
+                nextCheckpoint = System.currentTimeMillis() + taskManager.getCheckpointIntervalMs();
             }
         }
         
         public List<SolveResponse.Solution> getSolutions() {
             return solutions;
         }
+        
+        public int getSolutionCount() {
+            return solutionCount;
+        }
     }
 }
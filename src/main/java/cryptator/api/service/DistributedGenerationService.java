@@ -0,0 +1,282 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of distributed generations
+ * A generation is split into partitions by number of words (each partition is a range of minWords..maxWords),
+ * which are disjoint and together cover the whole generation. A missing minimum is the generator default. Without
+ * maximum, only the numbers of words up to the digits of the base are split: the symbols of a cryptarithm must fit
+ * in the base, so the larger numbers of words rarely give any, and they all go to the last partition.
+ * The numbers themselves are never split, since a cryptarithm may combine numbers of any sub-range. Each partition
+ * is sent to the owner node of its key, through the internal partition endpoint, and is retried on the next nodes
+ * if its worker is lost or times out (the attempt is cancelled first). The results are merged in the order of the
+ * partitions.
+ */
+@Service
+public class DistributedGenerationService {
+
+    /** Internal endpoint running a partition on a worker node */
+    public static final String PARTITION_PATH = "/api/v1/internal/cryptagen/partition";
+
+    /** Minimum number of words of the generator, when a request gives none */
+    private static final int DEFAULT_MIN_WORDS = 2;
+
+    /** Largest number of words split into partitions when a request gives no maximum: the digits of base 10 */
+    private static final int MAX_SPLIT_WORDS = 10;
+
+    @Autowired
+    private CryptagenService cryptagenService;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Value("${api.cluster.partition-retries:2}")
+    private int partitionRetries;
+
+    @Value("${api.cluster.max-partitions:64}")
+    private int maxPartitions;
+
+    /** Threads waiting on the partitions; the work itself runs on the solver pools of the workers */
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Split a generation into partitions, run them on the cluster and merge their results
+     */
+    public GenerateResponse generate(GenerateRequest request) {
+        String taskId = (request.getTaskId() != null && !request.getTaskId().trim().isEmpty())
+            ? request.getTaskId()
+            : UUID.randomUUID().toString();
+        taskManager.registerTask("GENERATE", taskId);
+        TaskManager.TaskInfo task = taskManager.getTaskInfo(taskId);
+        long startTime = System.currentTimeMillis();
+
+        GenerateResponse response = new GenerateResponse();
+        response.setTaskId(taskId);
+        try {
+            List<GenerateRequest> partitions = partition(request, taskId, maxPartitions);
+            AtomicInteger completed = new AtomicInteger();
+            task.setProgress("partitions", partitions.size());
+            task.setProgress("completedPartitions", 0);
+            System.out.println("Distributed generation " + taskId + ": " + partitions.size() + " partitions");
+
+            List<CompletableFuture<GenerateResponse>> results = new ArrayList<>();
+            for (GenerateRequest partition : partitions) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    GenerateResponse result = runPartition(partition, task);
+                    task.setProgress("completedPartitions", completed.incrementAndGet());
+                    return result;
+                }, dispatcher));
+            }
+
+            List<GenerateResponse.GeneratedCryptarithm> cryptarithms = new ArrayList<>();
+            String error = null;
+            long duplicates = 0;
+            Long rankedCandidates = null;
+            for (int i = 0; i < partitions.size(); i++) {
+                GenerateResponse result = results.get(i).join();
+                if (result.getError() != null) {
+                    error = error != null ? error : "Partition " + describe(partitions.get(i)) + ": " + result.getError();
+                } else if (result.getCryptarithms() != null) {
+                    cryptarithms.addAll(result.getCryptarithms());
+                }
+                if (result.getDuplicatesDropped() != null) {
+                    // Partitions have different numbers of words, so no duplicate spans two partitions
+                    duplicates += result.getDuplicatesDropped();
+                }
+                if (result.getRankedCandidates() != null) {
+                    rankedCandidates = (rankedCandidates == null ? 0 : rankedCandidates) + result.getRankedCandidates();
+                }
+            }
+            if (request.getTopK() != null) {
+                // Each partition kept its own best K: the global best K are among them
+                cryptarithms.sort(CryptarithmRanker.byScoreDescending());
+                if (cryptarithms.size() > request.getTopK()) {
+                    cryptarithms = new ArrayList<>(cryptarithms.subList(0, request.getTopK()));
+                }
+            }
+
+            if (task.isCancelled()) {
+                response.setSuccess(false);
+                response.setError("Task cancelled by user");
+                response.setCryptarithms(new ArrayList<>());
+            } else {
+                response.setSuccess(error == null);
+                response.setError(error);
+                response.setCryptarithms(cryptarithms);
+                response.setDuplicatesDropped(duplicates);
+                response.setRankedCandidates(rankedCandidates);
+            }
+        } finally {
+            taskManager.unregisterTask(taskId);
+        }
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    /**
+     * Split a generation into at most maxPartitions consecutive ranges of numbers of words
+     */
+    private static List<GenerateRequest> partition(GenerateRequest request, String taskId, int maxPartitions) {
+        List<GenerateRequest> partitions = new ArrayList<>();
+        int wordCount = wordCount(request);
+        int minWords = request.getMinWords() != null ? request.getMinWords() : DEFAULT_MIN_WORDS;
+        int maxWords = request.getMaxWords() != null ? request.getMaxWords()
+            : Math.min(wordCount, Math.max(minWords, MAX_SPLIT_WORDS));
+        // The last partition also takes the numbers of words beyond the split ones
+        boolean openEnded = request.getMaxWords() == null && wordCount > maxWords;
+        if (wordCount == 0 || maxWords < minWords) {
+            // Nothing to split: the worker reports the invalid request
+            partitions.add(copyOf(request, taskId + "-p0", request.getMinWords(), request.getMaxWords()));
+            return partitions;
+        }
+        int counts = maxWords - minWords + 1;
+        int size = (counts + Math.max(1, maxPartitions) - 1) / Math.max(1, maxPartitions);
+        for (int n = minWords; n <= maxWords; n += size) {
+            int last = Math.min(maxWords, n + size - 1);
+            partitions.add(copyOf(request, taskId + "-p" + n, n, last == maxWords && openEnded ? null : last));
+        }
+        return partitions;
+    }
+
+    /**
+     * Number of words a generation picks from: its number range or its word list
+     */
+    private static int wordCount(GenerateRequest request) {
+        if (request.getLowerBound() != null && request.getUpperBound() != null
+                && request.getCountryCode() != null && request.getLangCode() != null) {
+            return Math.max(0, request.getUpperBound() - request.getLowerBound() + 1);
+        }
+        return request.getWords() == null ? 0 : request.getWords().size();
+    }
+
+    private static GenerateRequest copyOf(GenerateRequest request, String taskId, Integer minWords, Integer maxWords) {
+        GenerateRequest copy = new GenerateRequest();
+        copy.setTaskId(taskId);
+        copy.setWords(request.getWords());
+        copy.setOperatorSymbol(request.getOperatorSymbol());
+        copy.setSolutionLimit(request.getSolutionLimit());
+        copy.setTimeLimit(request.getTimeLimit());
+        copy.setShuffle(request.getShuffle());
+        copy.setCountryCode(request.getCountryCode());
+        copy.setLangCode(request.getLangCode());
+        copy.setLowerBound(request.getLowerBound());
+        copy.setUpperBound(request.getUpperBound());
+        copy.setDryRun(request.getDryRun());
+        copy.setRightMemberType(request.getRightMemberType());
+        copy.setMinWords(minWords);
+        copy.setMaxWords(maxWords);
+        copy.setLightPropagation(request.getLightPropagation());
+        copy.setThreads(request.getThreads());
+        copy.setCrossGridSize(request.getCrossGridSize());
+        copy.setAllowLeadingZeros(request.getAllowLeadingZeros());
+        copy.setTopK(request.getTopK());
+        copy.setScorers(request.getScorers());
+        return copy;
+    }
+
+    private static String describe(GenerateRequest partition) {
+        if (partition.getMinWords() == null) {
+            return "all words";
+        }
+        if (partition.getMaxWords() == null) {
+            return partition.getMinWords() + "+ words";
+        }
+        return partition.getMinWords().equals(partition.getMaxWords()) ? partition.getMinWords() + " words"
+            : partition.getMinWords() + "-" + partition.getMaxWords() + " words";
+    }
+
+    /**
+     * Run a partition on the owner of its key, then on the next nodes if the worker is lost
+     */
+    private GenerateResponse runPartition(GenerateRequest partition, TaskManager.TaskInfo task) {
+        String key = RequestKey.generate(partition.getWords(), partition.getOperatorSymbol(),
+                partition.getCountryCode(), partition.getLangCode(),
+                partition.getLowerBound(), partition.getUpperBound(),
+                partition.getDryRun(), partition.getRightMemberType(),
+                partition.getMinWords(), partition.getMaxWords(),
+                partition.getLightPropagation(), partition.getThreads(),
+                partition.getCrossGridSize(), partition.getAllowLeadingZeros(),
+                partition.getTopK(), partition.getScorers());
+        List<String> candidates = workersFor(key);
+
+        for (int attempt = 0; attempt <= partitionRetries && !task.isCancelled(); attempt++) {
+            String worker = candidates.get(attempt % candidates.size());
+            if (worker.equals(clusterRouter.getSelf())) {
+                task.addCancelListener(() -> taskManager.cancelTask(partition.getTaskId()));
+                return cryptagenService.generatePartition(partition);
+            }
+            task.addCancelListener(() -> clusterRouter.cancelRemote(worker, partition.getTaskId()));
+            GenerateResponse result = clusterRouter.forward(worker, PARTITION_PATH, partition, GenerateResponse.class);
+            if (result != null) {
+                return result;
+            }
+            // A worker that timed out may still run the partition: stop it before running it again elsewhere
+            clusterRouter.cancelRemote(worker, partition.getTaskId());
+            System.out.println("Worker " + worker + " lost for partition " + partition.getTaskId() + ", retrying");
+        }
+
+        if (task.isCancelled()) {
+            GenerateResponse cancelled = new GenerateResponse();
+            cancelled.setSuccess(false);
+            cancelled.setError("Task cancelled by user");
+            return cancelled;
+        }
+        // Every attempted worker was lost: run the partition here
+        task.addCancelListener(() -> taskManager.cancelTask(partition.getTaskId()));
+        return cryptagenService.generatePartition(partition);
+    }
+
+    /**
+     * Nodes to try for a key: its owner first, then the following nodes of api.cluster.nodes
+     */
+    private List<String> workersFor(String key) {
+        List<String> nodes = clusterRouter.getNodes();
+        List<String> candidates = new ArrayList<>();
+        if (nodes.isEmpty()) {
+            candidates.add(clusterRouter.getSelf());
+            return candidates;
+        }
+        String owner = clusterRouter.ownerOf(key);
+        int start = nodes.indexOf(owner);
+        for (int i = 0; i < nodes.size(); i++) {
+            candidates.add(nodes.get((start + i) % nodes.size()));
+        }
+        return candidates;
+    }
+}
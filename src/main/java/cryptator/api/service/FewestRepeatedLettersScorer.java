@@ -0,0 +1,40 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.SolveRequest;
+import cryptator.specs.ICryptaNode;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+
+/**
+ * Favors cryptarithms whose letters are rarely repeated: distinct letters over letters
+ */
+@Component
+public class FewestRepeatedLettersScorer implements CryptarithmScorer {
+
+    @Override
+    public String getName() {
+        return "fewestRepeatedLetters";
+    }
+
+    @Override
+    public double score(ICryptaNode node, String cryptarithm, SolveRequest settings) {
+        BitSet distinct = new BitSet();
+        int letters = 0;
+        for (char[] word : InfeasibilityAnalyzer.words(node)) {
+            for (char c : word) {
+                distinct.set(c);
+                letters++;
+            }
+        }
+        return letters == 0 ? 0 : (double) distinct.cardinality() / letters;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+/**
+ * Compact set of 64-bit fingerprints: open addressing over a long array, 8 bytes per slot
+ * Not thread-safe; each generation has its own set.
+ */
+public final class FingerprintSet {
+
+    private long[] slots = new long[64];
+    private int size;
+    /** 0 marks an empty slot, so the fingerprint 0 is tracked apart */
+    private boolean containsZero;
+
+    /**
+     * Add a fingerprint
+     * @return true if it was not already in the set
+     */
+    public boolean add(long fingerprint) {
+        if (fingerprint == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        int mask = slots.length - 1;
+        int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == fingerprint) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = fingerprint;
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long fingerprint : old) {
+            if (fingerprint != 0) {
+                int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = fingerprint;
+            }
+        }
+    }
+
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+}
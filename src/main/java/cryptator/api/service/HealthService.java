@@ -0,0 +1,116 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.filter.RequestLimitFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Readiness of the instance from its real capacity
+ * The instance is ready when the warm-up is over and it still has free request permits, a short solver
+ * queue, a recent p99 wait for a solver thread under the threshold and enough free heap, so that a load balancer routes
+ * away from a saturated node before it starts rejecting requests. A draining instance is never ready.
+ */
+@Service
+public class HealthService {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private RequestLimitFilter requestLimitFilter;
+
+    @Autowired
+    private SolverPool solverPool;
+
+    @Autowired
+    private ShutdownCoordinator shutdownCoordinator;
+
+    @Value("${api.health.min-free-permits:5}")
+    private int minFreePermits;
+
+    @Value("${api.health.max-queue-depth:32}")
+    private int maxQueueDepth;
+
+    @Value("${api.health.max-queue-wait-p99-ms:5000}")
+    private long maxQueueWaitP99Ms;
+
+    @Value("${api.health.min-free-heap-percent:10}")
+    private double minFreeHeapPercent;
+
+    /**
+     * Evaluate every readiness check
+     * @return the status (READY, WARMING_UP, SATURATED or DRAINING) and the detail of each check
+     */
+    public Map<String, Object> getReadiness() {
+        Map<String, Object> checks = new LinkedHashMap<>();
+
+        Map<String, Object> shutdown = shutdownCoordinator.getStatus();
+        shutdown.put("ok", !shutdownCoordinator.isDraining());
+        checks.put("shutdown", shutdown);
+
+        Map<String, Object> warmup = warmupService.getStatus();
+        warmup.put("ok", warmupService.isComplete());
+        checks.put("warmup", warmup);
+
+        int availablePermits = requestLimitFilter.getAvailablePermits();
+        boolean permitsOk = availablePermits >= minFreePermits;
+        Map<String, Object> permits = new LinkedHashMap<>();
+        permits.put("ok", permitsOk);
+        permits.put("available", availablePermits);
+        permits.put("max", requestLimitFilter.getMaxConcurrentRequests());
+        permits.put("minFree", minFreePermits);
+        checks.put("permits", permits);
+
+        int queueDepth = solverPool.getQueueDepth();
+        boolean queueOk = queueDepth <= maxQueueDepth;
+        Map<String, Object> queue = new LinkedHashMap<>();
+        queue.put("ok", queueOk);
+        queue.put("depth", queueDepth);
+        queue.put("maxDepth", maxQueueDepth);
+        queue.put("capacity", solverPool.getQueueCapacity());
+        queue.put("activeThreads", solverPool.getActiveCount());
+        queue.put("threads", solverPool.getPoolSize());
+        checks.put("solverQueue", queue);
+
+        // The wait for a solver thread measures the saturation; the duration of a request mostly measures
+        // the time limit its client chose
+        long p99 = solverPool.getQueueWaits().percentileMs(99);
+        boolean queueWaitOk = p99 <= maxQueueWaitP99Ms;
+        Map<String, Object> queueWait = new LinkedHashMap<>();
+        queueWait.put("ok", queueWaitOk);
+        queueWait.put("p99Ms", p99);
+        queueWait.put("maxP99Ms", maxQueueWaitP99Ms);
+        checks.put("queueWait", queueWait);
+
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        double freePercent = 100.0 * (runtime.maxMemory() - used) / runtime.maxMemory();
+        boolean heapOk = freePercent >= minFreeHeapPercent;
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("ok", heapOk);
+        heap.put("freePercent", Math.round(freePercent * 10) / 10.0);
+        heap.put("usedBytes", used);
+        heap.put("maxBytes", runtime.maxMemory());
+        heap.put("minFreePercent", minFreeHeapPercent);
+        checks.put("heap", heap);
+
+        boolean saturated = !(permitsOk && queueOk && queueWaitOk && heapOk);
+        Map<String, Object> readiness = new LinkedHashMap<>();
+        readiness.put("status", shutdownCoordinator.isDraining() ? "DRAINING"
+            : !warmupService.isComplete() ? "WARMING_UP" : saturated ? "SATURATED" : "READY");
+        readiness.put("checks", checks);
+        return readiness;
+    }
+}
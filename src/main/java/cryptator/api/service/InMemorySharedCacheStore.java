@@ -0,0 +1,82 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded shared cache store, held in the heap of this node
+ * Used when no external store is configured: with a single node, or for tests of the cluster mode.
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private final ConcurrentHashMap<String, Value> values = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    /**
+     * @param maxEntries number of values above which expired values are evicted, then arbitrary ones
+     */
+    public InMemorySharedCacheStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String get(String key) {
+        Value value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (value.isExpired(System.nanoTime())) {
+            values.remove(key, value);
+            return null;
+        }
+        return value.json;
+    }
+
+    @Override
+    public void put(String key, String json, long ttlSeconds) {
+        long now = System.nanoTime();
+        long expiresAt = ttlSeconds > 0 ? now + TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        values.put(key, new Value(json, expiresAt));
+        if (values.size() > maxEntries) {
+            values.values().removeIf(v -> v.isExpired(now));
+            for (String k : values.keySet()) {
+                if (values.size() <= maxEntries) {
+                    break;
+                }
+                values.remove(k);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public long size() {
+        return values.size();
+    }
+
+    private static final class Value {
+        private final String json;
+        private final long expiresAt;
+
+        Value(String json, long expiresAt) {
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.specs.ICryptaNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Static pre-check proving that a parsed cryptarithm has no solution, before a solver is created
+ * The rules are sound but incomplete: a puzzle that passes them may still have no solution. Only the
+ * operators +, - and * are analyzed; equations using other operators, or words containing digits,
+ * are left to the solver.
+ */
+@Service
+public class InfeasibilityAnalyzer {
+
+    public enum Rule {
+        /** More distinct symbols than digits in the base */
+        TOO_MANY_SYMBOLS,
+        /** The word lengths make both sides of an equation range over disjoint values */
+        WORD_LENGTHS,
+        /** No assignment of the last letters satisfies an equation modulo the base */
+        LAST_DIGIT
+    }
+
+    @Value("${api.precheck.enabled:true}")
+    private boolean enabled;
+
+    /** Maximum number of distinct last letters enumerated by the last-digit rule */
+    @Value("${api.precheck.max-last-letters:5}")
+    private int maxLastLetters;
+
+    private final Map<Rule, LongAdder> savedInvocations = new EnumMap<>(Rule.class);
+    private final LongAdder analyzed = new LongAdder();
+
+    public InfeasibilityAnalyzer() {
+        for (Rule rule : Rule.values()) {
+            savedInvocations.put(rule, new LongAdder());
+        }
+    }
+
+    /**
+     * Result of a proof of infeasibility
+     */
+    public static final class Result {
+        private final Rule rule;
+        private final String detail;
+
+        Result(Rule rule, String detail) {
+            this.rule = rule;
+            this.detail = detail;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return rule + ": " + detail;
+        }
+    }
+
+    /**
+     * Check a parsed cryptarithm and count the solver invocation saved if it is infeasible
+     * @param hints validated manual assignments, fixing the digits of some symbols
+     * @return the rule proving that the cryptarithm has no solution, or null if none applies
+     */
+    public Result analyze(ICryptaNode root, int base, boolean allowLeadingZeros, AssignmentHints hints) {
+        if (!enabled) {
+            return null;
+        }
+        analyzed.increment();
+        Result result = check(root, base, allowLeadingZeros, hints);
+        if (result != null) {
+            savedInvocations.get(result.getRule()).increment();
+        }
+        return result;
+    }
+
+    private Result check(ICryptaNode root, int base, boolean allowLeadingZeros, AssignmentHints hints) {
+        List<char[]> words = words(root);
+
+        Set<Character> symbols = new HashSet<>();
+        for (char[] word : words) {
+            for (char c : word) {
+                if (!Character.isDigit(c)) {
+                    symbols.add(c);
+                }
+            }
+        }
+        if (symbols.size() > base) {
+            return new Result(Rule.TOO_MANY_SYMBOLS,
+                symbols.size() + " distinct symbols for " + base + " digits in base " + base);
+        }
+
+        Set<Character> nonZero = new HashSet<>();
+        if (!allowLeadingZeros) {
+            for (char[] word : words) {
+                if (word.length > 1) {
+                    nonZero.add(word[0]);
+                }
+            }
+        }
+
+        List<ICryptaNode> equations = new ArrayList<>();
+        collectEquations(root, equations);
+        for (ICryptaNode equation : equations) {
+            BigInteger[] left = interval(equation.getLeftChild(), base, allowLeadingZeros);
+            BigInteger[] right = interval(equation.getRightChild(), base, allowLeadingZeros);
+            if (left != null && right != null
+                    && (left[1].compareTo(right[0]) < 0 || right[1].compareTo(left[0]) < 0)) {
+                return new Result(Rule.WORD_LENGTHS, "left member in [" + left[0] + ", " + left[1]
+                    + "], right member in [" + right[0] + ", " + right[1] + "]");
+            }
+
+            Set<Character> lastLetters = new LinkedHashSet<>();
+            if (collectLastLetters(equation, lastLetters) && lastLetters.size() <= maxLastLetters
+                    && lastLetters.size() <= base
+                    && !hasLastDigitSolution(equation, new ArrayList<>(lastLetters), symbols, nonZero, hints, base)) {
+                return new Result(Rule.LAST_DIGIT, "no assignment of " + lastLetters
+                    + " satisfies the last column modulo " + base);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Words of a cryptarithm, from left to right
+     */
+    static List<char[]> words(ICryptaNode root) {
+        List<char[]> words = new ArrayList<>();
+        collectWords(root, words);
+        return words;
+    }
+
+    private static void collectWords(ICryptaNode node, List<char[]> words) {
+        if (node == null) {
+            return;
+        }
+        if (node.isLeaf()) {
+            words.add(node.getWord());
+        } else {
+            collectWords(node.getLeftChild(), words);
+            collectWords(node.getRightChild(), words);
+        }
+    }
+
+    /**
+     * Equations of the tree: the root, or the members of a conjunction
+     */
+    private static void collectEquations(ICryptaNode node, List<ICryptaNode> equations) {
+        if (node == null || node.isLeaf()) {
+            return;
+        }
+        switch (node.getOperator()) {
+            case EQ:
+                equations.add(node);
+                break;
+            case ADD:
+            case SUB:
+            case MUL:
+                break;
+            default:
+                collectEquations(node.getLeftChild(), equations);
+                collectEquations(node.getRightChild(), equations);
+        }
+    }
+
+    private static boolean isLetterWord(char[] word) {
+        if (word == null || word.length == 0) {
+            return false;
+        }
+        for (char c : word) {
+            if (Character.isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bounds of the values of a member, by interval arithmetic on the word lengths
+     * @return {min, max}, or null if the member cannot be analyzed
+     */
+    private static BigInteger[] interval(ICryptaNode node, int base, boolean allowLeadingZeros) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isLeaf()) {
+            char[] word = node.getWord();
+            if (!isLetterWord(word)) {
+                return null;
+            }
+            BigInteger b = BigInteger.valueOf(base);
+            BigInteger max = b.pow(word.length).subtract(BigInteger.ONE);
+            BigInteger min = allowLeadingZeros || word.length == 1 ? BigInteger.ZERO : b.pow(word.length - 1);
+            return new BigInteger[] {min, max};
+        }
+        BigInteger[] l = interval(node.getLeftChild(), base, allowLeadingZeros);
+        BigInteger[] r = interval(node.getRightChild(), base, allowLeadingZeros);
+        if (l == null || r == null) {
+            return null;
+        }
+        switch (node.getOperator()) {
+            case ADD:
+                return new BigInteger[] {l[0].add(r[0]), l[1].add(r[1])};
+            case SUB:
+                return new BigInteger[] {l[0].subtract(r[1]), l[1].subtract(r[0])};
+            case MUL:
+                BigInteger[] products = {l[0].multiply(r[0]), l[0].multiply(r[1]), l[1].multiply(r[0]), l[1].multiply(r[1])};
+                BigInteger min = products[0];
+                BigInteger max = products[0];
+                for (BigInteger p : products) {
+                    min = min.min(p);
+                    max = max.max(p);
+                }
+                return new BigInteger[] {min, max};
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Collect the last letter of each word of an equation
+     * @return false if the equation cannot be analyzed modulo the base
+     */
+    private static boolean collectLastLetters(ICryptaNode node, Set<Character> letters) {
+        if (node == null) {
+            return false;
+        }
+        if (node.isLeaf()) {
+            char[] word = node.getWord();
+            if (!isLetterWord(word)) {
+                return false;
+            }
+            letters.add(word[word.length - 1]);
+            return true;
+        }
+        switch (node.getOperator()) {
+            case EQ:
+            case ADD:
+            case SUB:
+            case MUL:
+                return collectLastLetters(node.getLeftChild(), letters) && collectLastLetters(node.getRightChild(), letters);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Enumerate the injective assignments of the last letters, looking for one satisfying the equation modulo the base
+     * Hinted letters only take their digit; the digits of the other hinted symbols are not available.
+     */
+    private static boolean hasLastDigitSolution(ICryptaNode equation, List<Character> letters, Set<Character> symbols,
+                                                Set<Character> nonZero, AssignmentHints hints, int base) {
+        boolean[] used = new boolean[base];
+        for (char symbol : symbols) {
+            Integer digit = hints.digitOf(symbol);
+            if (digit != null && !letters.contains(symbol)) {
+                used[digit] = true;
+            }
+        }
+        Map<Character, Integer> digits = new LinkedHashMap<>();
+        return assign(equation, letters, 0, digits, used, nonZero, hints, base);
+    }
+
+    private static boolean assign(ICryptaNode equation, List<Character> letters, int index,
+                                  Map<Character, Integer> digits, boolean[] used, Set<Character> nonZero,
+                                  AssignmentHints hints, int base) {
+        if (index == letters.size()) {
+            return evalMod(equation.getLeftChild(), digits, base) == evalMod(equation.getRightChild(), digits, base);
+        }
+        char letter = letters.get(index);
+        Integer hint = hints.digitOf(letter);
+        int from = hint != null ? hint : nonZero.contains(letter) ? 1 : 0;
+        int to = hint != null ? hint + 1 : base;
+        for (int d = from; d < to; d++) {
+            if (!used[d]) {
+                used[d] = true;
+                digits.put(letter, d);
+                boolean found = assign(equation, letters, index + 1, digits, used, nonZero, hints, base);
+                used[d] = false;
+                if (found) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Value of a member modulo the base, given the digits of the last letters
+     */
+    private static long evalMod(ICryptaNode node, Map<Character, Integer> digits, int base) {
+        if (node.isLeaf()) {
+            char[] word = node.getWord();
+            return digits.get(word[word.length - 1]);
+        }
+        long l = evalMod(node.getLeftChild(), digits, base);
+        long r = evalMod(node.getRightChild(), digits, base);
+        switch (node.getOperator()) {
+            case ADD:
+                return (l + r) % base;
+            case SUB:
+                return Math.floorMod(l - r, base);
+            default:
+                return (l * r) % base;
+        }
+    }
+
+    /**
+     * Get the number of analyzed puzzles and of solver invocations saved by each rule
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("analyzed", analyzed.sum());
+        Map<Rule, Long> byRule = new EnumMap<>(Rule.class);
+        long saved = 0;
+        for (Map.Entry<Rule, LongAdder> entry : savedInvocations.entrySet()) {
+            byRule.put(entry.getKey(), entry.getValue().sum());
+            saved += entry.getValue().sum();
+        }
+        stats.put("savedSolverInvocations", saved);
+        stats.put("byRule", byRule);
+        return stats;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.SolveRequest;
+import cryptator.specs.ICryptaNode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Favors long words: mean word length, reaching 1 at 10 letters
+ */
+@Component
+public class LongestWordsScorer implements CryptarithmScorer {
+
+    private static final double FULL_SCORE_LENGTH = 10;
+
+    @Override
+    public String getName() {
+        return "longestWords";
+    }
+
+    @Override
+    public double score(ICryptaNode node, String cryptarithm, SolveRequest settings) {
+        int letters = 0;
+        int words = 0;
+        for (char[] word : InfeasibilityAnalyzer.words(node)) {
+            letters += word.length;
+            words++;
+        }
+        return words == 0 ? 0 : Math.min(1, letters / (words * FULL_SCORE_LENGTH));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the solve outcomes without any solution
+ * A puzzle is remembered either as proven without solution, or as timed out with no solution under a
+ * time budget. Repeats are short-circuited, unless a timed out puzzle is retried with a strictly larger
+ * budget. Entries are keyed by the puzzle and solver configuration (see {@link RequestKey#puzzle}).
+ */
+@Service
+public class NegativeResultCache {
+
+    public enum Outcome {
+        /** The search completed without finding a solution */
+        NO_SOLUTION,
+        /** The search hit its time limit without finding a solution */
+        TIMEOUT
+    }
+
+    @Value("${api.negative-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.negative-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${api.negative-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Find the entry that short-circuits a solve request
+     * @param puzzleKey key of the puzzle and solver configuration
+     * @param timeLimit time limit of the request in seconds (0 = no limit)
+     * @return the entry, or null if the request must be solved
+     */
+    public Entry lookup(String puzzleKey, int timeLimit) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(puzzleKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(ttlSeconds)) {
+            entries.remove(puzzleKey, entry);
+            return null;
+        }
+        if (entry.outcome == Outcome.TIMEOUT && (timeLimit <= 0 || timeLimit > entry.timeLimit)) {
+            // Retry with a strictly larger budget
+            return null;
+        }
+        entry.hits.increment();
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * Check whether a search has used up its time limit
+     * @param timeLimit time limit of the search in seconds (0 = no limit)
+     */
+    public static boolean timedOut(int timeLimit, long elapsedMs) {
+        return timeLimit > 0 && elapsedMs >= TimeUnit.SECONDS.toMillis(timeLimit);
+    }
+
+    /**
+     * Record the outcome of a search that found no solution
+     * @param timeLimit time limit of the search in seconds (0 = no limit)
+     * @param elapsedMs duration of the search
+     * @param success success flag returned by the solver
+     */
+    public void record(String puzzleKey, String cryptarithm, int timeLimit, long elapsedMs, boolean success) {
+        if (!enabled) {
+            return;
+        }
+        Outcome outcome = timedOut(timeLimit, elapsedMs) ? Outcome.TIMEOUT : Outcome.NO_SOLUTION;
+        entries.compute(puzzleKey, (k, existing) -> {
+            if (existing != null && existing.outcome == Outcome.NO_SOLUTION && !existing.isExpired(ttlSeconds)) {
+                // A proof is never downgraded to a timeout
+                return existing;
+            }
+            Entry entry = new Entry(cryptarithm, outcome, timeLimit, elapsedMs, success);
+            if (existing != null && existing.outcome == Outcome.TIMEOUT) {
+                entry.failures = existing.failures + 1;
+                entry.hits.add(existing.hits.sum());
+            }
+            return entry;
+        });
+        if (entries.size() > maxEntries) {
+            evictOldest();
+        }
+        System.out.println("Negative cache: " + cryptarithm + " " + outcome + " after " + elapsedMs + " ms");
+    }
+
+    /**
+     * Forget the outcome of a puzzle
+     */
+    public void invalidate(String puzzleKey) {
+        entries.remove(puzzleKey);
+    }
+
+    /**
+     * Forget all outcomes
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+            .min(Comparator.comparingLong(e -> e.getValue().recordedAt))
+            .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * List the known expensive puzzles, the most requested first
+     */
+    public List<Map<String, Object>> getExpensivePuzzles() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.removeIf(entry -> entry.isExpired(ttlSeconds));
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.hits.sum())
+            .thenComparingLong(entry -> entry.elapsedMs).reversed());
+        List<Map<String, Object>> puzzles = new ArrayList<>();
+        for (Entry entry : sorted) {
+            Map<String, Object> puzzle = new LinkedHashMap<>();
+            puzzle.put("cryptarithm", entry.cryptarithm);
+            puzzle.put("outcome", entry.outcome.name());
+            puzzle.put("timeLimit", entry.timeLimit);
+            puzzle.put("elapsedTimeMs", entry.elapsedMs);
+            puzzle.put("failures", entry.failures);
+            puzzle.put("shortCircuited", entry.hits.sum());
+            puzzle.put("recordedAt", entry.recordedAtMillis);
+            puzzles.add(puzzle);
+        }
+        return puzzles;
+    }
+
+    /**
+     * Get the number of short-circuited requests
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Outcome of a puzzle under one solver configuration
+     */
+    public static final class Entry {
+        private final String cryptarithm;
+        private final Outcome outcome;
+        private final int timeLimit;
+        private final long elapsedMs;
+        private final boolean success;
+        private final long recordedAt = System.nanoTime();
+        private final long recordedAtMillis = System.currentTimeMillis();
+        private final LongAdder hits = new LongAdder();
+        private int failures = 1;
+
+        Entry(String cryptarithm, Outcome outcome, int timeLimit, long elapsedMs, boolean success) {
+            this.cryptarithm = cryptarithm;
+            this.outcome = outcome;
+            this.timeLimit = timeLimit;
+            this.elapsedMs = elapsedMs;
+            this.success = success;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return ttlSeconds > 0 && System.nanoTime() - recordedAt > TimeUnit.SECONDS.toNanos(ttlSeconds);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public int getTimeLimit() {
+            return timeLimit;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+}
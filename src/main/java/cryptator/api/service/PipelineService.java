@@ -0,0 +1,456 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.PipelineRequest;
+import cryptator.api.dto.PipelineResponse;
+import cryptator.api.dto.SolveRequest;
+import cryptator.api.dto.UniquenessRequest;
+import cryptator.api.dto.UniquenessResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishing pipeline: generate cryptarithms, check that each one has a unique solution, store the survivors
+ * The three stages run concurrently and are connected by bounded queues: verification overlaps generation,
+ * and a full queue blocks the stage feeding it, so the memory of a job does not grow with the generation.
+ * The counters of each stage are published in the task status while the job runs.
+ */
+@Service
+public class PipelineService {
+
+    private static final String GENERATE = "generate";
+    private static final String VERIFY = "verify";
+    private static final String PERSIST = "persist";
+
+    /** End of the stream of a queue */
+    private static final GenerateResponse.GeneratedCryptarithm END = new GenerateResponse.GeneratedCryptarithm();
+
+    private static final long POLL_MS = 100;
+
+    @Autowired
+    private CryptagenService cryptagenService;
+
+    @Autowired
+    private CryptatorService cryptatorService;
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Autowired
+    private SolverPool solverPool;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.pipeline.queue-capacity:64}")
+    private int queueCapacity;
+
+    /** Number of concurrent uniqueness checks of a job, at most the size of the solver pool */
+    @Value("${api.pipeline.verifiers:2}")
+    private int verifiers;
+
+    @Value("${api.pipeline.max-jobs:2}")
+    private int maxJobs;
+
+    @Value("${api.pipeline.output-dir:pipeline}")
+    private String outputDir;
+
+    /** Number of finished jobs whose summary is kept */
+    @Value("${api.pipeline.max-finished:100}")
+    private int maxFinished;
+
+    private ExecutorService executor;
+    private Semaphore jobs;
+    private final Map<String, Job> running = new ConcurrentHashMap<>();
+    private final Map<String, PipelineResponse> finished = new LinkedHashMap<String, PipelineResponse>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PipelineResponse> eldest) {
+            return size() > maxFinished;
+        }
+    };
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        jobs = new Semaphore(maxJobs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a pipeline job in the background
+     * @return the state of the job, RUNNING unless too many jobs are already running
+     */
+    public PipelineResponse start(PipelineRequest request) {
+        String taskId = (request.getTaskId() != null && !request.getTaskId().trim().isEmpty())
+            ? request.getTaskId()
+            : UUID.randomUUID().toString();
+        if (!jobs.tryAcquire()) {
+            PipelineResponse response = new PipelineResponse();
+            response.setTaskId(taskId);
+            response.setState(PipelineResponse.State.FAILED);
+            response.setError("Server busy: " + maxJobs + " pipeline jobs are already running. Please try again later.");
+            return response;
+        }
+        taskManager.registerTask("PIPELINE", taskId);
+        Job job = new Job(taskId, request, taskManager.getTaskInfo(taskId));
+        running.put(taskId, job);
+        try {
+            executor.execute(job::run);
+        } catch (RuntimeException e) {
+            running.remove(taskId);
+            taskManager.unregisterTask(taskId);
+            jobs.release();
+            throw e;
+        }
+        return job.status();
+    }
+
+    /**
+     * Get the state of a running or finished job
+     * @return the state, or null if the job is unknown
+     */
+    public PipelineResponse getStatus(String taskId) {
+        Job job = running.get(taskId);
+        if (job != null) {
+            return job.status();
+        }
+        synchronized (finished) {
+            return finished.get(taskId);
+        }
+    }
+
+    /**
+     * One pipeline job and its queues
+     */
+    private final class Job {
+        private final String taskId;
+        private final PipelineRequest request;
+        private final TaskManager.TaskInfo task;
+        private final BlockingQueue<GenerateResponse.GeneratedCryptarithm> candidates;
+        private final BlockingQueue<GenerateResponse.GeneratedCryptarithm> survivors;
+        private final Map<String, Stage> stages = new LinkedHashMap<>();
+        private final Path outputFile;
+        private final long startTime = System.currentTimeMillis();
+        private volatile String error;
+
+        Job(String taskId, PipelineRequest request, TaskManager.TaskInfo task) {
+            this.taskId = taskId;
+            this.request = request;
+            this.task = task;
+            this.candidates = new ArrayBlockingQueue<>(queueCapacity);
+            this.survivors = new ArrayBlockingQueue<>(queueCapacity);
+            this.outputFile = Paths.get(outputDir, taskId.replaceAll("[^A-Za-z0-9._-]", "_") + ".jsonl");
+            stages.put(GENERATE, new Stage(null));
+            stages.put(VERIFY, new Stage(candidates));
+            stages.put(PERSIST, new Stage(survivors));
+            stages.forEach(task::setProgress);
+        }
+
+        void run() {
+            System.out.println("Pipeline " + taskId + " started, writing to " + outputFile);
+            try {
+                int verifierCount = Math.max(1, Math.min(verifiers, solverPool.getPoolSize()));
+                AtomicInteger activeVerifiers = new AtomicInteger(verifierCount);
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                futures.add(CompletableFuture.runAsync(() -> generate(verifierCount), executor));
+                for (int i = 0; i < verifierCount; i++) {
+                    String verifierTaskId = taskId + "-verify-" + i;
+                    task.addCancelListener(() -> taskManager.cancelTask(verifierTaskId));
+                    futures.add(CompletableFuture.runAsync(() -> verify(verifierTaskId, activeVerifiers), executor));
+                }
+                futures.add(CompletableFuture.runAsync(this::persist, executor));
+                for (CompletableFuture<Void> future : futures) {
+                    try {
+                        future.join();
+                    } catch (RuntimeException e) {
+                        fail(e.getCause() != null ? e.getCause() : e);
+                    }
+                }
+            } finally {
+                PipelineResponse summary = status();
+                synchronized (finished) {
+                    finished.put(taskId, summary);
+                }
+                running.remove(taskId);
+                taskManager.unregisterTask(taskId);
+                jobs.release();
+                System.out.println("Pipeline " + taskId + " " + summary.getState() + ": "
+                    + stages.get(PERSIST).emitted.sum() + " cryptarithms stored");
+            }
+        }
+
+        /**
+         * First stage: stream the generated cryptarithms into the candidate queue
+         */
+        private void generate(int verifierCount) {
+            Stage stage = stages.get(GENERATE);
+            String generateTaskId = taskId + "-generate";
+            task.addCancelListener(() -> taskManager.cancelTask(generateTaskId));
+            try {
+                GenerateResponse result = cryptagenService.generateCryptarithmsStreaming(generateTaskId,
+                        request.getGeneration(), cryptarithm -> {
+                            stage.processed.increment();
+                            if (!put(candidates, cryptarithm)) {
+                                // Stops the generator
+                                throw new RuntimeException("Task cancelled by user");
+                            }
+                            stage.emitted.increment();
+                        });
+                if (result.getError() != null && !task.isCancelled()) {
+                    fail(new IllegalStateException(result.getError()));
+                }
+            } finally {
+                stage.end();
+                for (int i = 0; i < verifierCount; i++) {
+                    put(candidates, END);
+                }
+            }
+        }
+
+        /**
+         * Second stage: keep the candidates proven to have a unique solution
+         */
+        private void verify(String verifierTaskId, AtomicInteger activeVerifiers) {
+            Stage stage = stages.get(VERIFY);
+            try {
+                GenerateResponse.GeneratedCryptarithm candidate;
+                while ((candidate = take(candidates)) != END) {
+                    stage.processed.increment();
+                    if (isUnique(verifierTaskId, candidate) && put(survivors, candidate)) {
+                        stage.emitted.increment();
+                    }
+                }
+            } finally {
+                if (activeVerifiers.decrementAndGet() == 0) {
+                    stage.end();
+                    put(survivors, END);
+                }
+            }
+        }
+
+        private boolean isUnique(String verifierTaskId, GenerateResponse.GeneratedCryptarithm candidate) {
+            UniquenessRequest check = new UniquenessRequest();
+            check.setTaskId(verifierTaskId);
+            check.setCryptarithm(candidate.getCryptarithm());
+            check.setSolverType(request.getSolverType());
+            check.setTimeLimit(request.getVerifyTimeLimit());
+            // Verify under the rules of the generation
+            SolveRequest settings = CryptagenService.solverSettings(request.getGeneration());
+            check.setArithmeticBase(settings.getArithmeticBase());
+            check.setAllowLeadingZeros(settings.getAllowLeadingZeros());
+            check.setHornerScheme(settings.getHornerScheme());
+            while (!task.isCancelled()) {
+                UniquenessResponse verdict = cryptatorService.checkUniqueness(check);
+                if (verdict.getError() == null || !verdict.getError().startsWith("Server busy")) {
+                    return verdict.getVerdict() == UniquenessResponse.Verdict.UNIQUE;
+                }
+                // The solver pool is full: wait for a free thread instead of dropping the candidate
+                sleep();
+            }
+            return false;
+        }
+
+        /**
+         * Last stage: append the survivors to the output file, one JSON object per line
+         */
+        private void persist() {
+            Stage stage = stages.get(PERSIST);
+            try {
+                Files.createDirectories(outputFile.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    GenerateResponse.GeneratedCryptarithm survivor;
+                    while ((survivor = take(survivors)) != END) {
+                        stage.processed.increment();
+                        writer.write(objectMapper.writeValueAsString(survivor));
+                        writer.newLine();
+                        writer.flush();
+                        stage.emitted.increment();
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+                // Drain the queue so that the verifiers are not blocked
+                while (take(survivors) != END) {
+                    stage.processed.increment();
+                }
+            } finally {
+                stage.end();
+            }
+        }
+
+        /**
+         * Put an item in a queue, waiting while it is full
+         * @return false if the job was cancelled before the item was queued; the next stages then stop by themselves
+         */
+        private boolean put(BlockingQueue<GenerateResponse.GeneratedCryptarithm> queue,
+                            GenerateResponse.GeneratedCryptarithm item) {
+            try {
+                while (!queue.offer(item, POLL_MS, TimeUnit.MILLISECONDS)) {
+                    if (task.isCancelled()) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Take the next item of a queue, or END once the job is cancelled
+         */
+        private GenerateResponse.GeneratedCryptarithm take(BlockingQueue<GenerateResponse.GeneratedCryptarithm> queue) {
+            try {
+                GenerateResponse.GeneratedCryptarithm item;
+                while ((item = queue.poll(POLL_MS, TimeUnit.MILLISECONDS)) == null) {
+                    if (task.isCancelled() && queue.isEmpty()) {
+                        return END;
+                    }
+                }
+                return item;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return END;
+            }
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.cancel();
+            }
+        }
+
+        /**
+         * Stop the job after an error of one of its stages
+         */
+        private void fail(Throwable e) {
+            if (error == null) {
+                error = "Error: " + e.getMessage();
+            }
+            task.cancel();
+        }
+
+        PipelineResponse status() {
+            PipelineResponse response = new PipelineResponse();
+            response.setTaskId(taskId);
+            boolean done = !running.containsKey(taskId) || stages.get(PERSIST).isEnded();
+            if (!done) {
+                response.setState(PipelineResponse.State.RUNNING);
+            } else if (error != null) {
+                response.setState(PipelineResponse.State.FAILED);
+            } else if (task.isCancelled()) {
+                response.setState(PipelineResponse.State.CANCELLED);
+            } else {
+                response.setState(PipelineResponse.State.COMPLETED);
+            }
+            response.setSuccess(error == null && response.getState() != PipelineResponse.State.CANCELLED);
+            response.setError(error != null ? error
+                : response.getState() == PipelineResponse.State.CANCELLED ? "Task cancelled by user" : null);
+            Map<String, PipelineResponse.StageStats> stats = new LinkedHashMap<>();
+            stages.forEach((name, stage) -> stats.put(name, stage.snapshot()));
+            response.setStages(stats);
+            response.setOutputFile(outputFile.toString());
+            response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+            return response;
+        }
+    }
+
+    /**
+     * Counters of a stage, read live by the task status
+     */
+    public static final class Stage {
+        private final BlockingQueue<?> input;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder emitted = new LongAdder();
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+
+        Stage(BlockingQueue<?> input) {
+            this.input = input;
+        }
+
+        void end() {
+            endNanos = System.nanoTime();
+        }
+
+        boolean isEnded() {
+            return endNanos != 0;
+        }
+
+        public long getProcessed() {
+            return processed.sum();
+        }
+
+        public long getEmitted() {
+            return emitted.sum();
+        }
+
+        public double getThroughputPerSecond() {
+            long elapsed = (isEnded() ? endNanos : System.nanoTime()) - startNanos;
+            return elapsed <= 0 ? 0 : processed.sum() * 1e9 / elapsed;
+        }
+
+        public Integer getQueueDepth() {
+            return input == null ? null : input.size();
+        }
+
+        public Integer getQueueCapacity() {
+            return input == null ? null : input.size() + input.remainingCapacity();
+        }
+
+        PipelineResponse.StageStats snapshot() {
+            PipelineResponse.StageStats stats = new PipelineResponse.StageStats();
+            stats.setProcessed(getProcessed());
+            stats.setEmitted(getEmitted());
+            stats.setThroughputPerSecond(getThroughputPerSecond());
+            stats.setQueueDepth(getQueueDepth());
+            stats.setQueueCapacity(getQueueCapacity());
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the most recent events, in a fixed-size ring
+ * Recording is lock-free; percentiles sort a copy of the samples younger than the window.
+ */
+public class RecentLatencies {
+
+    private final AtomicLongArray latencies;
+    private final AtomicLongArray timestamps;
+    private final AtomicLong next = new AtomicLong();
+    private final long windowNanos;
+
+    /**
+     * @param capacity maximum number of samples kept
+     * @param windowSeconds age above which a sample is ignored
+     */
+    public RecentLatencies(int capacity, long windowSeconds) {
+        this.latencies = new AtomicLongArray(capacity);
+        this.timestamps = new AtomicLongArray(capacity);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+    }
+
+    public void record(long latencyNanos) {
+        int slot = (int) (next.getAndIncrement() % latencies.length());
+        latencies.set(slot, latencyNanos);
+        timestamps.set(slot, System.nanoTime());
+    }
+
+    /**
+     * Get a percentile of the recent latencies in milliseconds
+     * @param percentile between 0 and 100
+     * @return the percentile, or -1 without recent sample
+     */
+    public long percentileMs(double percentile) {
+        long now = System.nanoTime();
+        int filled = (int) Math.min(next.get(), latencies.length());
+        long[] samples = new long[filled];
+        int count = 0;
+        for (int i = 0; i < filled; i++) {
+            long timestamp = timestamps.get(i);
+            if (timestamp != 0 && now - timestamp <= windowNanos) {
+                samples[count++] = latencies.get(i);
+            }
+        }
+        if (count == 0) {
+            return -1;
+        }
+        Arrays.sort(samples, 0, count);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(samples[Math.max(0, Math.min(count - 1, index))]);
+    }
+}
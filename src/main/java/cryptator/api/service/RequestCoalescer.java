@@ -0,0 +1,168 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Single-flight coalescing of identical concurrent requests
+ * Concurrent requests with the same key attach to one computation running on the solver pool under
+ * its own shared task. Cancelling a subscriber task only detaches that subscriber; the shared
+ * computation is cancelled when its last subscriber leaves.
+ */
+@Service
+public class RequestCoalescer {
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Autowired
+    private SolverPool solverPool;
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Attach to the in-flight computation of the key, or start it
+     * @param key normalized request key
+     * @param type task type of the shared computation
+     * @param subscriberTaskId registered task of the caller
+     * @param computation computation to run, given the id of the shared task to check for cancellation
+     * @return the future result for this subscriber, cancelled if the subscriber task is cancelled
+     * @throws java.util.concurrent.RejectedExecutionException if the computation cannot be queued on the solver pool
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, String type, String subscriberTaskId,
+                                            Function<String, T> computation) {
+        Flight[] created = new Flight[1];
+        Flight flight = flights.compute(key, (k, existing) -> {
+            if (existing != null && existing.tryJoin()) {
+                return existing;
+            }
+            created[0] = new Flight(key, type);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            coalesced.increment();
+            System.out.println("Request coalesced with shared task " + flight.sharedTaskId + " (" + type + ")");
+        } else {
+            start(flight, computation);
+        }
+
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        ((CompletableFuture<T>) flight.result).whenComplete((result, error) -> {
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(result);
+            }
+        });
+
+        AtomicBoolean left = new AtomicBoolean();
+        Runnable leave = () -> {
+            if (left.compareAndSet(false, true)) {
+                mine.cancel(false);
+                flight.leave();
+            }
+        };
+        TaskManager.TaskInfo subscriber = taskManager.getTaskInfo(subscriberTaskId);
+        if (subscriber != null) {
+            subscriber.addCancelListener(leave);
+        }
+        return mine;
+    }
+
+    private <T> void start(Flight flight, Function<String, T> computation) {
+        taskManager.registerTask(flight.type, flight.sharedTaskId);
+        taskManager.getTaskInfo(flight.sharedTaskId).setInternal(true);
+        try {
+            solverPool.submit(() -> {
+                    // Every subscriber left while the computation was queued (e.g. their deadline ran out)
+                    if (taskManager.isCancelled(flight.sharedTaskId)) {
+                        throw new CancellationException("Cancelled before the computation started");
+                    }
+                    return computation.apply(flight.sharedTaskId);
+                })
+                .whenComplete((result, error) -> {
+                    flights.remove(flight.key, flight);
+                    taskManager.unregisterTask(flight.sharedTaskId);
+                    if (error != null) {
+                        flight.result.completeExceptionally(error);
+                    } else {
+                        flight.result.complete(result);
+                    }
+                });
+        } catch (RuntimeException e) {
+            flights.remove(flight.key, flight);
+            taskManager.unregisterTask(flight.sharedTaskId);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of requests that attached to an in-flight computation
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get the number of shared computations in flight
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * A shared computation and its subscribers
+     */
+    private final class Flight {
+        private final String key;
+        private final String type;
+        private final String sharedTaskId = UUID.randomUUID().toString();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        /** Number of subscribers; once it drops to 0 the flight is closed */
+        private final AtomicInteger subscribers = new AtomicInteger(1);
+
+        Flight(String key, String type) {
+            this.key = key;
+            this.type = type;
+        }
+
+        boolean tryJoin() {
+            int n;
+            while ((n = subscribers.get()) > 0) {
+                if (subscribers.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void leave() {
+            if (subscribers.decrementAndGet() == 0) {
+                // Last subscriber left: stop the search
+                flights.remove(key, this);
+                taskManager.cancelTask(sharedTaskId);
+            }
+        }
+    }
+}
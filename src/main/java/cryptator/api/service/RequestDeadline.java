@@ -0,0 +1,135 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of a client request, given by the X-Request-Timeout-Ms header
+ * The budget is relative, so that the clocks of the client and of the server need not agree; it starts when
+ * the request filter admits the request. Solves derive their time limit from the remaining budget and are
+ * cancelled when it runs out, since the client no longer waits for the response.
+ */
+public final class RequestDeadline {
+
+    /** Header giving the number of milliseconds the client waits for the response */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    /** Request attribute holding the deadline of the current request */
+    public static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    /** Timer of the cancellations at the deadline, removed as soon as their task is over */
+    private static final ScheduledThreadPoolExecutor TIMER = newTimer();
+
+    private final long deadlineNanos;
+    private final long minRemainingMs;
+
+    private RequestDeadline(long timeoutMs, long minRemainingMs) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.minRemainingMs = minRemainingMs;
+    }
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "request-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Parse the header of a request
+     * @param minRemainingMs budget below which a search is not started
+     * @param maxTimeoutMs largest budget; longer ones are capped to it
+     * @return the deadline, or null if the header is absent
+     * @throws IllegalArgumentException if the header is not a positive number of milliseconds
+     */
+    public static RequestDeadline parse(String header, long minRemainingMs, long maxTimeoutMs) {
+        if (header == null || header.trim().isEmpty()) {
+            return null;
+        }
+        long timeoutMs;
+        try {
+            timeoutMs = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(HEADER + " must be a number of milliseconds: " + header);
+        }
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException(HEADER + " must be positive: " + header);
+        }
+        return new RequestDeadline(Math.min(timeoutMs, maxTimeoutMs), minRemainingMs);
+    }
+
+    /**
+     * Get the deadline of the current HTTP request
+     * @return the deadline, or null outside a request or if the client gave none
+     */
+    public static RequestDeadline current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+            : (RequestDeadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Check that enough budget remains to start a search
+     */
+    public boolean canStart() {
+        return remainingMillis() >= minRemainingMs;
+    }
+
+    public boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    /**
+     * Effective solver time limit, in seconds: the remaining budget, capped by the requested limit
+     * The solver only takes whole seconds, so the limit is rounded down (1 s at least); the search is
+     * cancelled at the deadline anyway.
+     * @param requested time limit of the request, 0 for none
+     */
+    public int timeLimit(int requested) {
+        long remaining = Math.max(1, Math.min(remainingMillis() / 1000, Integer.MAX_VALUE));
+        return requested > 0 ? (int) Math.min(requested, remaining) : (int) remaining;
+    }
+
+    /**
+     * Cancel a task at the deadline, unless it is over by then
+     * The cancellation is unscheduled when the task completes, so that the timer does not keep the task.
+     */
+    public void cancelAtDeadline(TaskManager.TaskInfo task) {
+        if (task == null) {
+            return;
+        }
+        ScheduledFuture<?> cancellation = TIMER.schedule(() -> {
+            if (!task.getCompletion().isDone()) {
+                System.out.println("Deadline reached, cancelling task " + task.getTaskId());
+                task.cancel();
+            }
+        }, Math.max(0, remainingMillis()), TimeUnit.MILLISECONDS);
+        task.getCompletion().whenComplete((result, error) -> cancellation.cancel(false));
+    }
+
+    /**
+     * Error message of a request whose deadline ran out
+     */
+    public static String exceededMessage() {
+        return "Deadline exceeded: the time budget of the request (" + HEADER + ") ran out";
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Normalized keys of solve and generate requests
+ * Two requests with the same key produce the same result, so they can share one computation
+ */
+public final class RequestKey {
+
+    private RequestKey() {
+    }
+
+    /**
+     * Normalize a cryptarithm: whitespace is not significant
+     */
+    public static String normalizeCryptarithm(String cryptarithm) {
+        return cryptarithm == null ? "" : cryptarithm.replaceAll("\\s+", "");
+    }
+
+    /**
+     * Key of the puzzle and the solver configuration, independent of the solution and time limits
+     */
+    public static String puzzle(String cryptarithm, String solverType, int arithmeticBase,
+                                boolean allowLeadingZeros, boolean hornerScheme,
+                                Map<String, Integer> assignments) {
+        return "puzzle|" + normalizeCryptarithm(cryptarithm)
+            + "|" + solverType
+            + "|b" + arithmeticBase
+            + "|z" + (allowLeadingZeros ? 1 : 0)
+            + "|h" + (hornerScheme ? 1 : 0)
+            + "|" + (assignments == null ? "{}" : new TreeMap<>(assignments).toString());
+    }
+
+    /**
+     * Key of a solve request
+     */
+    public static String solve(String cryptarithm, String solverType, int solutionLimit, int timeLimit,
+                               int arithmeticBase, boolean checkSolution,
+                               boolean allowLeadingZeros, boolean hornerScheme,
+                               Map<String, Integer> assignments) {
+        return "solve|" + puzzle(cryptarithm, solverType, arithmeticBase, allowLeadingZeros, hornerScheme, assignments)
+            + "|l" + solutionLimit
+            + "|t" + timeLimit
+            + "|c" + (checkSolution ? 1 : 0);
+    }
+
+    /**
+     * Key of a count request, distinct from the key of the solve request with the same parameters
+     */
+    public static String count(String cryptarithm, String solverType, int solutionLimit, int timeLimit,
+                               int arithmeticBase, boolean allowLeadingZeros, boolean hornerScheme,
+                               Map<String, Integer> assignments) {
+        return "count|" + puzzle(cryptarithm, solverType, arithmeticBase, allowLeadingZeros, hornerScheme, assignments)
+            + "|l" + solutionLimit
+            + "|t" + timeLimit;
+    }
+
+    /**
+     * Key of a uniqueness verdict; a definitive verdict does not depend on the time limit
+     */
+    public static String uniqueness(String cryptarithm, String solverType, int arithmeticBase,
+                                    boolean allowLeadingZeros, boolean hornerScheme,
+                                    Map<String, Integer> assignments) {
+        return "unique|" + puzzle(cryptarithm, solverType, arithmeticBase, allowLeadingZeros, hornerScheme, assignments);
+    }
+
+    /**
+     * Key of a generate request
+     */
+    public static String generate(List<String> words, String operatorSymbol,
+                                  String countryCode, String langCode,
+                                  Integer lowerBound, Integer upperBound,
+                                  Boolean dryRun, String rightMemberType,
+                                  Integer minWords, Integer maxWords,
+                                  Boolean lightPropagation, Integer threads,
+                                  Integer crossGridSize, Boolean allowLeadingZeros,
+                                  Integer topK, Map<String, Double> scorers) {
+        return "generate|" + words
+            + "|" + (operatorSymbol == null ? null : operatorSymbol.trim())
+            + "|" + countryCode + "|" + langCode + "|" + lowerBound + "|" + upperBound
+            + "|" + Boolean.TRUE.equals(dryRun) + "|" + rightMemberType
+            + "|" + minWords + "|" + maxWords
+            + "|" + Boolean.TRUE.equals(lightPropagation) + "|" + threads
+            + "|" + crossGridSize + "|" + Boolean.TRUE.equals(allowLeadingZeros)
+            + "|k" + topK + "|" + (scorers == null ? null : new TreeMap<>(scorers));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache of solve and generate results
+ * A bounded LRU near cache in the heap of this node is backed by a {@link SharedCacheStore} shared by
+ * all the nodes. Keys are normalized request keys (see {@link RequestKey}).
+ */
+@Service
+public class ResultCache {
+
+    @Autowired
+    private SharedCacheStore sharedStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> near;
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResultCache(@Value("${api.cache.near.max-entries:1000}") int nearMaxEntries) {
+        this.near = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > nearMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get a result from the near cache, then from the shared tier
+     * @return the result, or null if absent
+     */
+    public <T> T get(String key, Class<T> type) {
+        if (!enabled) {
+            return null;
+        }
+        long now = System.nanoTime();
+        synchronized (near) {
+            Entry entry = near.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                nearHits.increment();
+                return type.cast(entry.value);
+            }
+            if (entry != null) {
+                near.remove(key);
+            }
+        }
+        String json = sharedStore.get(key);
+        if (json != null) {
+            try {
+                T value = objectMapper.readValue(json, type);
+                putNear(key, value, now);
+                sharedHits.increment();
+                return value;
+            } catch (JsonProcessingException e) {
+                System.out.println("Ignoring unreadable shared cache entry " + key + ": " + e.getMessage());
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store a result in both tiers
+     */
+    public void put(String key, Object value) {
+        if (!enabled) {
+            return;
+        }
+        putNear(key, value, System.nanoTime());
+        try {
+            sharedStore.put(key, objectMapper.writeValueAsString(value), ttlSeconds);
+        } catch (JsonProcessingException e) {
+            System.out.println("Cannot store " + key + " in the shared cache: " + e.getMessage());
+        }
+    }
+
+    private void putNear(String key, Object value, long now) {
+        long expiresAt = ttlSeconds > 0 ? now + TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        synchronized (near) {
+            near.put(key, new Entry(value, expiresAt));
+        }
+    }
+
+    /**
+     * Remove all the results from both tiers
+     */
+    public void clear() {
+        synchronized (near) {
+            near.clear();
+        }
+        sharedStore.clear();
+    }
+
+    /**
+     * Get the size and hit counters of both tiers
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (near) {
+            stats.put("nearSize", near.size());
+        }
+        stats.put("sharedSize", sharedStore.size());
+        stats.put("sharedStore", sharedStore.getClass().getSimpleName());
+        stats.put("nearHits", nearHits.sum());
+        stats.put("sharedHits", sharedHits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+    }
+}
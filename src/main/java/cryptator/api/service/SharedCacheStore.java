@@ -0,0 +1,39 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+/**
+ * Shared tier of the result cache, visible to all the API nodes
+ * Values are JSON documents, so that an implementation can be backed by any external key-value store.
+ * Declaring a bean of this type replaces the embedded in-process store.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * Get a value
+     * @return the value, or null if absent or expired
+     */
+    String get(String key);
+
+    /**
+     * Store a value
+     * @param ttlSeconds time to live of the value (0 = no expiry)
+     */
+    void put(String key, String value, long ttlSeconds);
+
+    /**
+     * Remove all the values
+     */
+    void clear();
+
+    /**
+     * Get the number of stored values, or -1 if unknown
+     */
+    long size();
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.filter.RequestLimitFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graceful shutdown of the instance
+ * When the application context closes, before the web server and the solver pool stop, new solves and
+ * generations are rejected by RequestLimitFilter and the readiness probe reports DRAINING, while the
+ * running tasks are given until the drain deadline to complete. The tasks still running at the deadline
+ * are cancelled: enumerations save their checkpoint when they stop, and every other task leaves an
+ * interrupted record, so that its status is not lost.
+ */
+@Service
+public class ShutdownCoordinator {
+
+    public enum State {
+        RUNNING, DRAINING, STOPPED
+    }
+
+    static final String INTERRUPTED = "Interrupted by server shutdown";
+
+    private static final long POLL_MS = 100;
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Autowired
+    private RequestLimitFilter requestLimitFilter;
+
+    @Value("${api.shutdown.drain-timeout-seconds:30}")
+    private long drainTimeoutSeconds;
+
+    /** Time left to the cancelled tasks to save their checkpoint */
+    @Value("${api.shutdown.cancel-grace-seconds:5}")
+    private long cancelGraceSeconds;
+
+    private volatile State state = State.RUNNING;
+    private volatile long drainStart;
+    private volatile int initialTasks;
+    private volatile int interruptedTasks;
+
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void drain() {
+        if (state != State.RUNNING) {
+            return;
+        }
+        state = State.DRAINING;
+        drainStart = System.currentTimeMillis();
+        requestLimitFilter.setDraining(true);
+        initialTasks = taskManager.getRunningTasksCount();
+        System.out.println("Shutdown: draining " + initialTasks + " running tasks for up to "
+            + drainTimeoutSeconds + " s");
+
+        boolean drained = awaitTasks(drainStart + TimeUnit.SECONDS.toMillis(drainTimeoutSeconds));
+        if (!drained) {
+            List<TaskManager.TaskInfo> remaining = taskManager.getRunningTasks();
+            interruptedTasks = remaining.size();
+            System.out.println("Shutdown: drain deadline reached, cancelling " + interruptedTasks + " tasks");
+            for (TaskManager.TaskInfo task : remaining) {
+                task.cancel();
+            }
+            awaitTasks(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(cancelGraceSeconds));
+            if (taskManager.isCheckpointEnabled()) {
+                for (TaskManager.TaskInfo task : remaining) {
+                    if (!task.isInternal()) {
+                        persist(task);
+                    }
+                }
+            }
+        }
+        state = State.STOPPED;
+        System.out.println("Shutdown: drained in " + (System.currentTimeMillis() - drainStart) + " ms, "
+            + interruptedTasks + " tasks interrupted");
+    }
+
+    /**
+     * Wait until no task runs
+     * @return false if tasks are still running at the deadline
+     */
+    private boolean awaitTasks(long deadline) {
+        while (taskManager.getRunningTasksCount() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark the checkpoint of an interrupted task, or record the interruption of a task without checkpoint
+     */
+    private void persist(TaskManager.TaskInfo task) {
+        Checkpoint checkpoint = taskManager.loadCheckpoint(task.getTaskId());
+        if (checkpoint == null) {
+            checkpoint = Checkpoint.interrupted(task.getTaskId(), task.getType(), INTERRUPTED);
+        } else {
+            checkpoint.setReason(INTERRUPTED);
+        }
+        taskManager.saveCheckpoint(checkpoint);
+    }
+
+    public boolean isDraining() {
+        return state != State.RUNNING;
+    }
+
+    /**
+     * Get the shutdown state and the drain progress
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state.name());
+        if (state != State.RUNNING) {
+            long elapsed = System.currentTimeMillis() - drainStart;
+            status.put("initialTasks", initialTasks);
+            status.put("runningTasks", taskManager.getRunningTasksCount());
+            status.put("interruptedTasks", interruptedTasks);
+            status.put("elapsedTimeMs", elapsed);
+            status.put("remainingTimeMs", Math.max(0, TimeUnit.SECONDS.toMillis(drainTimeoutSeconds) - elapsed));
+        }
+        return status;
+    }
+}
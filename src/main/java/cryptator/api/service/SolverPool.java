@@ -0,0 +1,145 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of platform threads running the CPU-bound solve and generate work.
+ * Request threads (possibly virtual) only wait for the result. The time each task waits in the queue is
+ * recorded: unlike the duration of a request, it does not depend on the time limit chosen by the client.
+ */
+@Service
+public class SolverPool {
+
+    @Value("${api.solver.pool-size:0}")
+    private int poolSize;
+
+    @Value("${api.solver.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final RecentLatencies queueWaits = new RecentLatencies(1024, 60);
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "solver-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }) {
+            @Override
+            public void execute(Runnable command) {
+                // Every submission path (submit, supplyAsync, reactive schedulers) goes through execute
+                long queued = System.nanoTime();
+                super.execute(() -> {
+                    queueWaits.record(System.nanoTime() - queued);
+                    command.run();
+                });
+            }
+        };
+        System.out.println("Solver pool initialized with " + threads + " threads, queue capacity " + queueCapacity);
+    }
+
+    /**
+     * Run a task on the pool and wait for its result
+     * @throws RejectedExecutionException if every solver thread is busy and the queue is full
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the solver", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Run a task on the pool without waiting
+     * @throws RejectedExecutionException if every solver thread is busy and the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Get the underlying executor, e.g. to build a bounded reactive scheduler
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the number of tasks waiting for a solver thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Get the time the recent tasks (last minute) waited for a solver thread
+     */
+    public RecentLatencies getQueueWaits() {
+        return queueWaits;
+    }
+
+    /**
+     * Get the number of solver threads currently busy
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Get the number of solver threads
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Get the maximum number of waiting tasks
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
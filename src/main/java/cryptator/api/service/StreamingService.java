@@ -0,0 +1,193 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.GenerateResponse;
+import cryptator.api.dto.SolveRequest;
+import cryptator.api.dto.SolveResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive variants of the solve, generate and task status operations.
+ * Solutions are pushed from the solver consumers into a FluxSink with a bounded buffer; the solver thread
+ * never waits for the subscriber, and the search is cancelled when the subscriber leaves or stops reading.
+ * A closed connection is only noticed when writing to it, so idle streams send a heartbeat comment;
+ * streams with a client deadline end at the deadline.
+ */
+@Service
+public class StreamingService {
+
+    @Autowired
+    private CryptatorService cryptatorService;
+
+    @Autowired
+    private CryptagenService cryptagenService;
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Autowired
+    private SolverPool solverPool;
+
+    /** Interval of the heartbeat comments of idle streams, 0 to disable them */
+    @Value("${api.streaming.heartbeat-ms:5000}")
+    private long heartbeatMs;
+
+    /** Number of values buffered for a subscriber without demand, beyond which its task is cancelled */
+    @Value("${api.streaming.max-buffered:256}")
+    private long maxBuffered;
+
+    /** Bounded scheduler backed by the solver pool */
+    private Scheduler scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Schedulers.fromExecutorService(solverPool.getExecutor(), "solver");
+    }
+
+    /**
+     * Stream the solutions of a cryptarithm as they are found
+     */
+    public Flux<ServerSentEvent<SolveResponse.Solution>> streamSolutions(SolveRequest request) {
+        String taskId = resolveTaskId(request.getTaskId());
+        RequestDeadline deadline = RequestDeadline.current();
+        return events(Flux.<SolveResponse.Solution>create(sink -> {
+            BoundedEmitter<SolveResponse.Solution> emitter = new BoundedEmitter<>(sink, taskId);
+            if (deadline != null) {
+                // The search starts once a solver thread is free: the time limit is what remains of the budget
+                if (!deadline.canStart()) {
+                    emitter.terminate(RequestDeadline.exceededMessage());
+                    return;
+                }
+                request.setTimeLimit(deadline.timeLimit(request.getTimeLimit()));
+            }
+            SolveResponse response = cryptatorService.solveCryptarithmStreaming(taskId, request, emitter::emit);
+            emitter.terminate(response.getError());
+        }, FluxSink.OverflowStrategy.BUFFER).subscribeOn(scheduler, false), deadline);
+    }
+
+    /**
+     * Stream generated cryptarithms as they are found
+     */
+    public Flux<ServerSentEvent<GenerateResponse.GeneratedCryptarithm>> streamCryptarithms(GenerateRequest request) {
+        String taskId = resolveTaskId(request.getTaskId());
+        RequestDeadline deadline = RequestDeadline.current();
+        return events(Flux.<GenerateResponse.GeneratedCryptarithm>create(sink -> {
+            BoundedEmitter<GenerateResponse.GeneratedCryptarithm> emitter = new BoundedEmitter<>(sink, taskId);
+            if (deadline != null && !deadline.canStart()) {
+                emitter.terminate(RequestDeadline.exceededMessage());
+                return;
+            }
+            GenerateResponse response = cryptagenService.generateCryptarithmsStreaming(taskId, request, emitter::emit);
+            emitter.terminate(response.getError());
+        }, FluxSink.OverflowStrategy.BUFFER).subscribeOn(scheduler, false), deadline);
+    }
+
+    /**
+     * Wrap the values of a stream in server-sent events, interleaved with heartbeat comments
+     * The stream ends at the deadline, which cancels the task as a client leaving does.
+     */
+    private <T> Flux<ServerSentEvent<T>> events(Flux<T> values, RequestDeadline deadline) {
+        Flux<T> bounded = deadline == null ? values
+            : Flux.defer(() -> values.take(Duration.ofMillis(Math.max(0, deadline.remainingMillis()))));
+        Flux<ServerSentEvent<T>> events = bounded.map(value -> ServerSentEvent.builder(value).build());
+        if (heartbeatMs <= 0) {
+            return events;
+        }
+        // Prefetch of 1, so that the buffer bound still follows the demand of the client
+        return events.publish(shared -> Flux.merge(1, shared,
+                Flux.interval(Duration.ofMillis(heartbeatMs))
+                    .map(tick -> ServerSentEvent.<T>builder().comment("heartbeat").build())
+                    .takeUntilOther(shared.then().onErrorResume(e -> Mono.empty()))), 1);
+    }
+
+    /**
+     * Get the status of a task, waiting (without holding a thread) up to waitMs for a running task to complete
+     */
+    public Mono<Map<String, Object>> awaitTaskStatus(String taskId, long waitMs) {
+        TaskManager.TaskInfo info = taskManager.getTaskInfo(taskId);
+        if (info == null || waitMs <= 0) {
+            return Mono.fromCallable(() -> taskManager.getTaskStatus(taskId));
+        }
+        return Mono.fromFuture(info.getCompletion().copy())
+                .timeout(Duration.ofMillis(waitMs), Mono.empty())
+                .then(Mono.fromCallable(() -> taskManager.getTaskStatus(taskId)));
+    }
+
+    private String resolveTaskId(String taskIdFromClient) {
+        return (taskIdFromClient != null && !taskIdFromClient.trim().isEmpty())
+            ? taskIdFromClient
+            : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Pushes values to a subscriber without ever blocking the producing solver thread
+     * Values beyond the demand of the subscriber are buffered up to maxBuffered; past that bound the
+     * subscriber is considered stalled, and the task is cancelled to free its solver thread.
+     */
+    private final class BoundedEmitter<T> {
+
+        private final FluxSink<T> sink;
+        private final String taskId;
+        private final AtomicLong requested = new AtomicLong();
+        /** Number of values pushed, only updated by the producing thread */
+        private long emitted;
+        private volatile boolean stalled;
+
+        BoundedEmitter(FluxSink<T> sink, String taskId) {
+            this.sink = sink;
+            this.taskId = taskId;
+            sink.onRequest(n -> requested.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b));
+            sink.onCancel(() -> taskManager.cancelTask(taskId));
+        }
+
+        void emit(T value) {
+            if (sink.isCancelled() || taskManager.isCancelled(taskId)) {
+                // Stop the search, as the capturing consumers do on cancellation
+                throw new RuntimeException("Task cancelled by user");
+            }
+            if (emitted - requested.get() >= maxBuffered) {
+                stalled = true;
+                taskManager.cancelTask(taskId);
+                throw new RuntimeException("Task cancelled: the client stopped reading");
+            }
+            emitted++;
+            sink.next(value);
+        }
+
+        void terminate(String error) {
+            if (sink.isCancelled()) {
+                return;
+            }
+            if (stalled) {
+                sink.error(new IllegalStateException("Stream cancelled: more than " + maxBuffered
+                    + " values were waiting for the client"));
+            } else if (error != null) {
+                sink.error(new IllegalStateException(error));
+            } else {
+                sink.complete();
+            }
+        }
+    }
+}
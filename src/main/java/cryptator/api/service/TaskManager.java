@@ -8,10 +8,28 @@
  */
 package cryptator.api.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -21,6 +39,55 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class TaskManager {
     
     private final ConcurrentHashMap<String, TaskInfo> runningTasks = new ConcurrentHashMap<>();
+
+    /** Status of the checkpoints on disk by file name, so that polling a finished task does not read its checkpoint */
+    private final ConcurrentHashMap<String, Map<String, Object>> checkpointStatus = new ConcurrentHashMap<>();
+
+    private static final String STATUS_SUFFIX = ".status.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.checkpoint.enabled:true}")
+    private boolean checkpointEnabled;
+
+    @Value("${api.checkpoint.dir:checkpoints}")
+    private String checkpointDir;
+
+    @Value("${api.checkpoint.interval-ms:10000}")
+    private long checkpointIntervalMs;
+
+    @Value("${api.checkpoint.max-age-hours:168}")
+    private long checkpointMaxAgeHours;
+
+    /**
+     * Delete the checkpoints older than the maximum age, left by tasks that were never resumed, and index the
+     * status of the others from their status files
+     */
+    @PostConstruct
+    public void purgeCheckpoints() {
+        Path dir = Paths.get(checkpointDir);
+        if (!checkpointEnabled || !Files.isDirectory(dir)) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(checkpointMaxAgeHours);
+        int purged = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < oldest) {
+                    Files.deleteIfExists(file);
+                    purged++;
+                } else if (file.getFileName().toString().endsWith(STATUS_SUFFIX)) {
+                    indexStatus(file);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot purge checkpoints: " + e.getMessage());
+        }
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " checkpoints older than " + checkpointMaxAgeHours + " h");
+        }
+    }
     
     /**
      * Register a new task and return its ID
@@ -42,6 +109,18 @@ public class TaskManager {
         System.out.println("Task registered with client ID: " + taskId + " (" + type + ")");
     }
     
+    /**
+     * Register a task with a specific ID, unless a task with this ID is running
+     * @return false if the ID is taken
+     */
+    public boolean tryRegisterTask(String type, String taskId) {
+        if (runningTasks.putIfAbsent(taskId, new TaskInfo(taskId, type)) != null) {
+            return false;
+        }
+        System.out.println("Task registered with client ID: " + taskId + " (" + type + ")");
+        return true;
+    }
+    
     /**
      * Check if a task has been cancelled
      */
@@ -67,7 +146,10 @@ public class TaskManager {
      * Unregister a task when it's done
      */
     public void unregisterTask(String taskId) {
-        runningTasks.remove(taskId);
+        TaskInfo info = runningTasks.remove(taskId);
+        if (info != null) {
+            info.getCompletion().complete(null);
+        }
         System.out.println("Task unregistered: " + taskId);
     }
     
@@ -78,12 +160,153 @@ public class TaskManager {
         return runningTasks.get(taskId);
     }
     
+    /**
+     * Get the status of a task as exposed by the API
+     */
+    public Map<String, Object> getTaskStatus(String taskId) {
+        Map<String, Object> status = new HashMap<>();
+        TaskInfo info = runningTasks.get(taskId);
+        
+        if (info != null) {
+            status.put("found", true);
+            status.put("taskId", taskId);
+            status.put("type", info.getType());
+            status.put("elapsedTimeMs", info.getElapsedTime());
+            status.put("cancelled", info.isCancelled());
+            status.put("status", info.isCancelled() ? "CANCELLED" : "RUNNING");
+            if (!info.getProgress().isEmpty()) {
+                status.put("progress", new HashMap<>(info.getProgress()));
+            }
+        } else {
+            Map<String, Object> checkpoint = checkpointEnabled ? checkpointStatus.get(fileName(taskId)) : null;
+            status.put("found", checkpoint != null);
+            status.put("taskId", taskId);
+            status.put("status", "NOT_FOUND");
+            if (checkpoint != null) {
+                status.putAll(checkpoint);
+            }
+        }
+        return status;
+    }
+    
+    public boolean isCheckpointEnabled() {
+        return checkpointEnabled;
+    }
+
+    /**
+     * Minimum delay between two checkpoints of a running enumeration
+     */
+    public long getCheckpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    /**
+     * Save the progress of a task on local disk, replacing its previous checkpoint atomically
+     * Its status is kept in memory and in a small status file, read back at startup.
+     * A failure is logged and otherwise ignored: the task goes on without checkpoint.
+     */
+    public void saveCheckpoint(Checkpoint checkpoint) {
+        checkpoint.setUpdatedAt(System.currentTimeMillis());
+        Map<String, Object> status = statusOf(checkpoint);
+        try {
+            write(checkpointFile(checkpoint.getTaskId()), checkpoint);
+            write(statusFile(checkpoint.getTaskId()), status);
+            checkpointStatus.put(fileName(checkpoint.getTaskId()), status);
+        } catch (IOException e) {
+            System.out.println("Cannot save checkpoint of task " + checkpoint.getTaskId() + ": " + e.getMessage());
+        }
+    }
+
+    private void write(Path file, Object value) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), value);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Status of a checkpoint as exposed by the API: its counts, without its solutions and cryptarithms
+     */
+    private static Map<String, Object> statusOf(Checkpoint checkpoint) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("status", checkpoint.isResumable() ? "CHECKPOINTED" : "INTERRUPTED");
+        status.put("type", checkpoint.getType());
+        status.put("reason", checkpoint.getReason());
+        status.put("checkpointedAt", checkpoint.getUpdatedAt());
+        status.put("solutions", checkpoint.getSolutions().size());
+        status.put("cryptarithms", checkpoint.getCryptarithms().size());
+        status.put("completedPartitions", new ArrayList<>(checkpoint.getCompletedPartitions()));
+        return status;
+    }
+
+    private void indexStatus(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            Map<String, Object> status = objectMapper.readValue(file.toFile(), new TypeReference<Map<String, Object>>() { });
+            checkpointStatus.put(name.substring(0, name.length() - STATUS_SUFFIX.length()), status);
+        } catch (IOException e) {
+            System.out.println("Cannot read checkpoint status " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the checkpoint of a task
+     * @return the checkpoint, or null if there is none
+     */
+    public Checkpoint loadCheckpoint(String taskId) {
+        if (!checkpointEnabled) {
+            return null;
+        }
+        Path file = checkpointFile(taskId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), Checkpoint.class);
+        } catch (IOException e) {
+            System.out.println("Cannot read checkpoint of task " + taskId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete the checkpoint of a completed task
+     */
+    public void deleteCheckpoint(String taskId) {
+        checkpointStatus.remove(fileName(taskId));
+        try {
+            Files.deleteIfExists(statusFile(taskId));
+            Files.deleteIfExists(checkpointFile(taskId));
+        } catch (IOException e) {
+            System.out.println("Cannot delete checkpoint of task " + taskId + ": " + e.getMessage());
+        }
+    }
+
+    private Path checkpointFile(String taskId) {
+        return Paths.get(checkpointDir, fileName(taskId) + ".json");
+    }
+
+    private Path statusFile(String taskId) {
+        return Paths.get(checkpointDir, fileName(taskId) + STATUS_SUFFIX);
+    }
+
+    private static String fileName(String taskId) {
+        return taskId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
     /**
      * Get the number of running tasks
      */
     public int getRunningTasksCount() {
         return runningTasks.size();
     }
+
+    /**
+     * Get the running tasks
+     */
+    public List<TaskInfo> getRunningTasks() {
+        return new ArrayList<>(runningTasks.values());
+    }
     
     /**
      * Information about a running task
@@ -93,6 +316,10 @@ public class TaskManager {
         private final String type;
         private final long startTime;
         private final AtomicBoolean cancelled;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+        private final Map<String, Object> progress = new ConcurrentHashMap<>();
+        private volatile boolean internal;
         
         public TaskInfo(String taskId, String type) {
             this.taskId = taskId;
@@ -102,13 +329,36 @@ public class TaskManager {
         }
         
         public void cancel() {
-            cancelled.set(true);
+            if (cancelled.compareAndSet(false, true)) {
+                cancelListeners.forEach(Runnable::run);
+            }
+        }
+        
+        /**
+         * Run the listener when the task is cancelled (immediately if it already is)
+         */
+        public void addCancelListener(Runnable listener) {
+            cancelListeners.add(listener);
+            if (cancelled.get() && cancelListeners.remove(listener)) {
+                listener.run();
+            }
         }
         
         public boolean isCancelled() {
             return cancelled.get();
         }
         
+        /**
+         * Mark a task run on behalf of other tasks (e.g. a shared computation), whose id is never given to clients
+         */
+        public void setInternal(boolean internal) {
+            this.internal = internal;
+        }
+        
+        public boolean isInternal() {
+            return internal;
+        }
+        
         public String getTaskId() {
             return taskId;
         }
@@ -124,5 +374,23 @@ public class TaskManager {
         public long getElapsedTime() {
             return System.currentTimeMillis() - startTime;
         }
+        
+        /**
+         * Publish a progress counter of the task in its status
+         */
+        public void setProgress(String name, Object value) {
+            progress.put(name, value);
+        }
+        
+        public Map<String, Object> getProgress() {
+            return progress;
+        }
+        
+        /**
+         * Completed when the task is unregistered
+         */
+        public CompletableFuture<Void> getCompletion() {
+            return completion;
+        }
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.SolveRequest;
+import cryptator.api.dto.SolveResponse;
+import cryptator.specs.ICryptaNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Favors cryptarithms with a unique solution: 1 if a search limited to two solutions finds exactly one
+ * The search runs in the generating thread, so that it never waits for another solver thread, with the
+ * solver settings of the generation so that a puzzle is judged by the rules it was generated under.
+ */
+@Component
+public class UniqueSolutionScorer implements CryptarithmScorer {
+
+    @Autowired
+    private CryptatorService cryptatorService;
+
+    @Value("${api.ranking.verify-time-limit:5}")
+    private int verifyTimeLimit;
+
+    @Override
+    public String getName() {
+        return "uniqueSolution";
+    }
+
+    @Override
+    public double score(ICryptaNode node, String cryptarithm, SolveRequest settings) {
+        SolveRequest request = new SolveRequest();
+        request.setCryptarithm(cryptarithm);
+        request.setSolverType(settings.getSolverType());
+        request.setArithmeticBase(settings.getArithmeticBase());
+        request.setAllowLeadingZeros(settings.getAllowLeadingZeros());
+        request.setHornerScheme(settings.getHornerScheme());
+        request.setSolutionLimit(2);
+        request.setTimeLimit(verifyTimeLimit);
+        SolveResponse response = cryptatorService.solveCryptarithmStreaming("rank-" + UUID.randomUUID(), request, null);
+        boolean unique = response.getError() == null && response.getSolutionCount() == 1
+            && !NegativeResultCache.timedOut(verifyTimeLimit, response.getExecutionTimeMs());
+        return unique ? 1 : 0;
+    }
+
+    @Override
+    public boolean isExpensive() {
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.api.dto.GenerateRequest;
+import cryptator.api.dto.SolveRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Warm-up stage run once the application has started
+ * The bundled corpus (warmup/ resources) is replayed through CryptatorService and CryptagenService so that
+ * parsing, model building and search are compiled by the JIT before the instance reports ready. The replay
+ * bypasses the result cache; the corpus can then optionally be preloaded in the cache.
+ */
+@Service
+public class WarmupService {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, SKIPPED
+    }
+
+    @Autowired
+    private CryptatorService cryptatorService;
+
+    @Autowired
+    private CryptagenService cryptagenService;
+
+    @Autowired
+    private TaskManager taskManager;
+
+    @Value("${api.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.warmup.iterations:3}")
+    private int iterations;
+
+    @Value("${api.warmup.max-duration-seconds:120}")
+    private long maxDurationSeconds;
+
+    @Value("${api.warmup.solve-time-limit:10}")
+    private int solveTimeLimit;
+
+    @Value("${api.warmup.generate-max-words:3}")
+    private int generateMaxWords;
+
+    @Value("${api.warmup.preload-cache:false}")
+    private boolean preloadCache;
+
+    private volatile State state = State.PENDING;
+    private final AtomicInteger completedRuns = new AtomicInteger();
+    private volatile int totalRuns;
+    private volatile long startTime;
+    private volatile long durationMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            state = State.SKIPPED;
+            return;
+        }
+        Thread thread = new Thread(this::run, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        state = State.RUNNING;
+        startTime = System.currentTimeMillis();
+        long deadline = startTime + TimeUnit.SECONDS.toMillis(maxDurationSeconds);
+        List<String[]> solveCorpus = read("warmup/solve-corpus.txt");
+        List<String[]> generateCorpus = read("warmup/generate-corpus.txt");
+        totalRuns = iterations * (solveCorpus.size() + generateCorpus.size());
+        System.out.println("Warm-up started: " + totalRuns + " runs");
+
+        try {
+            for (int i = 0; i < iterations; i++) {
+                for (String[] entry : solveCorpus) {
+                    if (!runWithin(deadline, taskId -> cryptatorService.solveCryptarithmStreaming(taskId,
+                            solveRequest(entry), solution -> { }))) {
+                        return;
+                    }
+                }
+                for (String[] entry : generateCorpus) {
+                    if (!runWithin(deadline, taskId -> cryptagenService.generateCryptarithmsStreaming(taskId,
+                            generateRequest(entry), cryptarithm -> { }))) {
+                        return;
+                    }
+                }
+            }
+            if (preloadCache) {
+                for (String[] entry : solveCorpus) {
+                    SolveRequest request = solveRequest(entry);
+                    cryptatorService.solveCryptarithm(null, request.getCryptarithm(), request.getSolverType(),
+                            request.getSolutionLimit(), request.getTimeLimit(), request.getArithmeticBase(),
+                            false, false, false, false, null);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Warm-up error: " + e.getMessage());
+        } finally {
+            durationMs = System.currentTimeMillis() - startTime;
+            state = State.COMPLETED;
+            System.out.println("Warm-up completed: " + completedRuns.get() + "/" + totalRuns + " runs in " + durationMs + " ms");
+        }
+    }
+
+    /**
+     * Run one warm-up task, cancelled at the deadline
+     * @return false if the deadline is reached
+     */
+    private boolean runWithin(long deadline, Consumer<String> run) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            System.out.println("Warm-up stopped: max duration of " + maxDurationSeconds + " s reached");
+            return false;
+        }
+        String taskId = "warmup-" + UUID.randomUUID();
+        // Does nothing if the task is already over
+        CompletableFuture.runAsync(() -> taskManager.cancelTask(taskId),
+                CompletableFuture.delayedExecutor(remaining, TimeUnit.MILLISECONDS));
+        run.accept(taskId);
+        completedRuns.incrementAndGet();
+        return true;
+    }
+
+    private SolveRequest solveRequest(String[] entry) {
+        SolveRequest request = new SolveRequest();
+        request.setSolverType(entry[0]);
+        request.setCryptarithm(entry[1]);
+        request.setTimeLimit(solveTimeLimit);
+        return request;
+    }
+
+    private GenerateRequest generateRequest(String[] entry) {
+        GenerateRequest request = new GenerateRequest();
+        request.setWords(Arrays.asList(entry[0].split(",")));
+        request.setMaxWords(generateMaxWords);
+        return request;
+    }
+
+    private static List<String[]> read(String resource) {
+        List<String[]> entries = new ArrayList<>();
+        InputStream in = WarmupService.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            System.out.println("Warm-up corpus not found: " + resource);
+            return entries;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    entries.add(line.split(";", 2));
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot read warm-up corpus " + resource + ": " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Check whether the warm-up is over (or disabled)
+     */
+    public boolean isComplete() {
+        return state == State.COMPLETED || state == State.SKIPPED;
+    }
+
+    /**
+     * Get the warm-up state and progress
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state.name());
+        status.put("completedRuns", completedRuns.get());
+        status.put("totalRuns", totalRuns);
+        if (state == State.COMPLETED) {
+            status.put("durationMs", durationMs);
+        } else if (state == State.RUNNING) {
+            status.put("elapsedTimeMs", System.currentTimeMillis() - startTime);
+        }
+        return status;
+    }
+}
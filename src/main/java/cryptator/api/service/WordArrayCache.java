@@ -0,0 +1,146 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import cryptator.cmd.WordArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of the number-word dictionaries of doubly-true generations
+ * Building a WordArray spells out every number of its range, so built dictionaries are shared by the
+ * generations of the same (country, language, range). The cache is bounded by the total number of spelled
+ * numbers and evicts the least recently used dictionaries; a range larger than the bound is built but not kept.
+ * Concurrent requests for the same dictionary wait for a single build.
+ */
+@Service
+public class WordArrayCache {
+
+    @Value("${api.word-array-cache.enabled:true}")
+    private boolean enabled;
+
+    /** Maximum number of spelled numbers kept, over all the dictionaries */
+    @Value("${api.word-array-cache.max-numbers:2000000}")
+    private long maxNumbers;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Get the dictionary of the numbers from lowerBound to upperBound, spelled in a language
+     */
+    public WordArray get(String countryCode, String langCode, int lowerBound, int upperBound) {
+        long numbers = (long) upperBound - lowerBound + 1;
+        if (!enabled || numbers > maxNumbers) {
+            return new WordArray(countryCode, langCode, lowerBound, upperBound);
+        }
+        String key = countryCode.toUpperCase(Locale.ROOT) + "|" + langCode.toLowerCase(Locale.ROOT)
+            + "|" + lowerBound + "|" + upperBound;
+
+        Entry entry;
+        boolean created = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(Math.max(numbers, 1));
+                entries.put(key, entry);
+                weight += entry.weight;
+                evict(entry);
+                created = true;
+            }
+        }
+
+        if (!created) {
+            hits.increment();
+            try {
+                return entry.value.join();
+            } catch (CompletionException e) {
+                // The build failed for the first caller; try again for this one
+                return new WordArray(countryCode, langCode, lowerBound, upperBound);
+            }
+        }
+        misses.increment();
+        try {
+            WordArray wordArray = new WordArray(countryCode, langCode, lowerBound, upperBound);
+            entry.value.complete(wordArray);
+            return wordArray;
+        } catch (RuntimeException e) {
+            entry.value.completeExceptionally(e);
+            remove(key, entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Evict the least recently used dictionaries until the total weight fits, keeping the one just added
+     */
+    private void evict(Entry added) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (weight > maxNumbers && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (eldest != added) {
+                it.remove();
+                weight -= eldest.weight;
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        synchronized (entries) {
+            if (entries.remove(key, entry)) {
+                weight -= entry.weight;
+            }
+        }
+    }
+
+    /**
+     * Remove all the dictionaries
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * Get the number of dictionaries, of spelled numbers and the hit counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (entries) {
+            stats.put("dictionaries", entries.size());
+            stats.put("numbers", weight);
+        }
+        stats.put("maxNumbers", maxNumbers);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final long weight;
+        private final CompletableFuture<WordArray> value = new CompletableFuture<>();
+
+        Entry(long weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of cryptator, https://github.com/arnaud-m/cryptator
+ *
+ * Copyright (c) 2021-2026, Université Côte d'Azur. All rights reserved.
+ *
+ * Licensed under the BSD 3-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package cryptator.api.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Preprocessed word list of a generation
+ * Words are trimmed, lower-cased and deduplicated, then indexed by length and letter-set bitmask. A word is
+ * pruned when no cryptarithm of the generation can contain it: it has more distinct letters than digits, or
+ * no other word fits in the same cryptarithm, because the union of their letters exceeds the digits or
+ * (for additions without leading zeros) their lengths cannot be those of a left and a right member.
+ * The pruning is sound: every cryptarithm of the original list is still generated.
+ */
+public final class WordIndex {
+
+    /** Base of the generated cryptarithms (the generator uses the default base of its configuration) */
+    static final int BASE = 10;
+
+    private final List<String> words;
+    private final int inputWords;
+    private final int duplicates;
+    private final long prunedCombinations;
+
+    private WordIndex(List<String> words, int inputWords, int duplicates, long prunedCombinations) {
+        this.words = Collections.unmodifiableList(words);
+        this.inputWords = inputWords;
+        this.duplicates = duplicates;
+        this.prunedCombinations = prunedCombinations;
+    }
+
+    /**
+     * Build the index of a word list
+     * @param addition true for additions, where the length rule applies (without leading zeros)
+     * @param rightMemberFree true if the right member may also be a left member
+     * @param keepLast true if the position of the last word matters (fixed right member): it is never moved or pruned
+     */
+    public static WordIndex of(List<String> input, boolean addition, boolean allowLeadingZeros,
+                               boolean rightMemberFree, boolean keepLast, Integer minWords, Integer maxWords) {
+        Set<String> unique = new LinkedHashSet<>();
+        String last = null;
+        for (String word : input) {
+            String normalized = word == null ? "" : word.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                unique.add(normalized);
+                last = normalized;
+            }
+        }
+        if (keepLast && last != null) {
+            unique.remove(last);
+            unique.add(last);
+        }
+        List<String> normalized = new ArrayList<>(unique);
+        int n = normalized.size();
+
+        // Letter-set bitmasks; the pairwise rule is skipped past 64 distinct symbols
+        Map<Character, Integer> bits = new HashMap<>();
+        long[] masks = new long[n];
+        int[] lengths = new int[n];
+        int[] letterCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            String word = normalized.get(i);
+            lengths[i] = word.length();
+            letterCounts[i] = (int) word.chars().distinct().count();
+            for (char c : word.toCharArray()) {
+                Integer bit = bits.computeIfAbsent(c, k -> bits.size());
+                if (bit < Long.SIZE) {
+                    masks[i] |= 1L << bit;
+                }
+            }
+        }
+        boolean useMasks = bits.size() <= Long.SIZE;
+
+        int maxLeft = (maxWords != null && maxWords > 0 ? Math.min(maxWords, n) : n) - 1;
+        int carryDigits = 0;
+        for (long p = 1; p < maxLeft; p *= BASE) {
+            carryDigits++;
+        }
+
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            boolean fixed = keepLast && i == n - 1;
+            if (fixed || viable(i, masks, lengths, letterCounts, useMasks, addition && !allowLeadingZeros,
+                    rightMemberFree, carryDigits)) {
+                kept.add(normalized.get(i));
+            }
+        }
+
+        // Duplicates and blank words were never distinct choices: count from the deduplicated list
+        int min = minWords != null && minWords > 0 ? minWords : 2;
+        int max = maxWords != null && maxWords > 0 ? maxWords : n;
+        long before = combinations(n, min, max);
+        long after = combinations(kept.size(), min, max);
+        return new WordIndex(kept, input.size(), input.size() - n, Math.max(0, before - after));
+    }
+
+    /**
+     * Check that a word can appear in at least one cryptarithm
+     */
+    private static boolean viable(int i, long[] masks, int[] lengths, int[] letterCounts, boolean useMasks,
+                                  boolean lengthRule, boolean rightMemberFree, int carryDigits) {
+        if (letterCounts[i] > BASE) {
+            return false;
+        }
+        for (int j = 0; j < masks.length; j++) {
+            if ((j == i && !rightMemberFree) || letterCounts[j] > BASE) {
+                continue;
+            }
+            if (useMasks && Long.bitCount(masks[i] | masks[j]) > BASE) {
+                continue;
+            }
+            // In a sum, the right member is at least as long as every left member, and at most
+            // carryDigits longer than the longest one: i on the left needs a right member j at least
+            // as long, i as right member needs a longest left member j at most carryDigits shorter
+            if (!lengthRule || lengths[j] >= lengths[i] - carryDigits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of subsets of min to max words among n, saturated at Long.MAX_VALUE
+     */
+    static long combinations(int n, int min, int max) {
+        long total = 0;
+        for (int k = Math.max(min, 0); k <= Math.min(max, n); k++) {
+            long c = 1;
+            for (int i = 0; i < k; i++) {
+                // c * (n - i) / (i + 1) stays exact since c * (n - i) is divisible by i + 1
+                if (c > Long.MAX_VALUE / (n - i)) {
+                    return Long.MAX_VALUE;
+                }
+                c = c * (n - i) / (i + 1);
+            }
+            if (total > Long.MAX_VALUE - c) {
+                return Long.MAX_VALUE;
+            }
+            total += c;
+        }
+        return total;
+    }
+
+    /**
+     * Words kept for the generator, in input order
+     */
+    public List<String> getWords() {
+        return words;
+    }
+
+    public int getInputWords() {
+        return inputWords;
+    }
+
+    /**
+     * Number of input words removed as duplicates or blanks
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Number of distinct words removed because no cryptarithm can contain them
+     */
+    public int getPrunedWords() {
+        return inputWords - duplicates - words.size();
+    }
+
+    /**
+     * Number of word combinations of the input list that the generator no longer explores
+     */
+    public long getPrunedCombinations() {
+        return prunedCombinations;
+    }
+}